@@ -1,5 +1,6 @@
 package com.example.shopit.config;
 
+import com.example.shopit.controller.StoreController;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -12,6 +13,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(StoreController.NEXT_CURSOR_HEADER, StoreController.CORRECTED_QUERY_HEADER)
                 .allowCredentials(false);
     }
 }
@@ -1,14 +1,34 @@
 package com.example.shopit.controller;
 
 
-import com.example.shopit.dto.InventoryDto;
-import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.dto.BasketSearchRequestDto;
+import com.example.shopit.dto.BasketStoreResultDto;
+import com.example.shopit.dto.InventoryPageDto;
+import com.example.shopit.dto.SearchFacetedResultsDto;
+import com.example.shopit.dto.SearchPageDto;
+import com.example.shopit.dto.StoreDetailsDto;
 import com.example.shopit.entity.Store;
+import com.example.shopit.service.InventoryChangeFeed;
+import com.example.shopit.service.StoreDetailsCache;
 import com.example.shopit.service.StoreService;
+import com.example.shopit.service.StoreStreamHub;
+import com.example.shopit.service.SuggestionIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,9 +38,29 @@ import java.util.Optional;
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class StoreController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String CORRECTED_QUERY_HEADER = "X-Corrected-Query";
+
+    private static final int STREAM_FLUSH_ROWS = 100;
+
     @Autowired
     private StoreService storeService;
 
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private StoreDetailsCache storeDetailsCache;
+
+    @Autowired
+    private InventoryChangeFeed inventoryChangeFeed;
+
+    @Autowired
+    private StoreStreamHub storeStreamHub;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         Map<String, String> response = new HashMap<>();
@@ -33,7 +73,13 @@ public class StoreController {
             @RequestParam String query,
             @RequestParam Double lat,
             @RequestParam Double lng,
-            @RequestParam(defaultValue = "10") Double radius){
+            @RequestParam(defaultValue = "10") Double radius,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean facets){
 
         if (query == null || query.trim().isEmpty() ||lat == null || lng == null){
             Map<String, String> error = new HashMap<>();
@@ -42,8 +88,36 @@ public class StoreController {
         }
 
         try{
-            List<SearchResultDto> results = storeService.searchNearbyStores(query, lat, lng, radius);
-            return ResponseEntity.ok(results);
+            SearchPageDto page;
+            if (k != null) {
+                // k nearest stores; radius is ignored, the search widens until k stores are found
+                if (cursor != null || sort != null) {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "k cannot be combined with cursor or sort");
+                    return ResponseEntity.badRequest().body(error);
+                }
+                page = storeService.searchNearestStores(query, category, lat, lng, k, facets);
+            } else {
+                page = storeService.searchNearbyStores(query, category, lat, lng, radius, limit, cursor, sort, facets);
+            }
+            // Body is a plain array unless facets were asked for; the keyset cursor for the next page travels
+            // in a header either way
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            if (page.getCorrectedQuery() != null) {
+                // Percent-encoded so non-ASCII product names survive the header; later pages use this query
+                response.header(CORRECTED_QUERY_HEADER, URLEncoder.encode(page.getCorrectedQuery(), StandardCharsets.UTF_8));
+            }
+            if (facets) {
+                return response.body(new SearchFacetedResultsDto(page.getResults(), page.getFacets()));
+            }
+            return response.body(page.getResults());
+        }catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         }catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Server Error");
@@ -51,27 +125,132 @@ public class StoreController {
         }
     }
 
+    // Same search, written as newline-delimited JSON while rows are read instead of one buffered array
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearchStores(
+            @RequestParam String query,
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(defaultValue = "10") Double radius,
+            @RequestParam(required = false) String category){
+
+        if (query == null || query.trim().isEmpty() ||lat == null || lng == null){
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Missing parameters: query, lat, lng");
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(out -> writeLine(out, error));
+        }
+
+        StreamingResponseBody body = out -> {
+            int[] written = {0};
+            // A failed write (client gone) throws out of the stream, which closes the database cursor
+            storeService.streamNearbyStores(query, category, lat, lng, radius, row -> {
+                writeLine(out, row);
+                if (++written[0] == 1 || written[0] % STREAM_FLUSH_ROWS == 0) {
+                    out.flush();
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Served from memory; the frontend calls this on every keystroke. With lat/lng, completions come from
+    // what stores within radius km stock
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "10") Double radius,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Missing parameter: prefix");
+            return ResponseEntity.badRequest().body(error);
+        }
+        return ResponseEntity.ok(suggestionIndex.suggest(prefix, lat, lng, radius, Math.max(1, limit)));
+    }
+
+    @PostMapping("/search/basket")
+    public ResponseEntity<?> searchBasket(@Valid @RequestBody BasketSearchRequestDto basketRequest) {
+        try {
+            List<BasketStoreResultDto> results = storeService.searchBasket(basketRequest);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Server Error");
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    // Polled by the store page. A cached, current payload is written as stored bytes with no database work;
+    // otherwise an unchanged store costs one version lookup and a 304
+    // With category, q, size or cursor the inventory is one keyset page instead (X-Next-Cursor), uncached
     @GetMapping("/stores/{storeId}")
-    public ResponseEntity<?> getStoreDetails(@PathVariable Long storeId) {
+    public ResponseEntity<?> getStoreDetails(
+            @PathVariable Long storeId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
         try{
-            Optional<Store> storeOpt = storeService.getStoreById(storeId);
-            if (storeOpt.isEmpty()) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Store not found");
-                return ResponseEntity.status(404).body(error);
+            if (category != null || q != null || size != null || cursor != null) {
+                Optional<Store> store = storeService.getStoreById(storeId);
+                if (store.isEmpty()) {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Store not found");
+                    return ResponseEntity.status(404).body(error);
+                }
+                InventoryPageDto page = storeService.getInventoryPage(storeId, true, category, q, size, cursor);
+                StoreDetailsDto details = new StoreDetailsDto(store.get().getId(), store.get().getName(),
+                        store.get().getAddress(), store.get().getLatitude(), store.get().getLongitude(), page.getItems());
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (page.getNextCursor() != null) {
+                    response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                }
+                return response.body(details);
+            }
+
+            StoreDetailsCache.Entry cached = storeDetailsCache.get(storeId);
+            if (cached == null) {
+                long version = storeDetailsCache.currentVersion(storeId);
+                Optional<String> eTag = storeService.getStoreDetailsETag(storeId);
+                if (eTag.isEmpty()) {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Store not found");
+                    return ResponseEntity.status(404).body(error);
+                }
+                if (request.checkNotModified(eTag.get())) {
+                    return null;
+                }
+
+                Optional<StoreDetailsDto> details = storeService.getStoreDetails(storeId);
+                if (details.isEmpty()) {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Store not found");
+                    return ResponseEntity.status(404).body(error);
+                }
+                cached = storeDetailsCache.put(storeId, version, eTag.get(), details.get());
+            } else if (request.checkNotModified(cached.eTag())) {
+                return null;
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(cached.eTag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip());
             }
-            Store store = storeOpt.get();
-            List<InventoryDto> inventory = storeService.getStoreInventory(storeId);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", store.getId());
-            response.put("name", store.getName());
-            response.put("address", store.getAddress());
-            response.put("latitude", store.getLatitude());
-            response.put("longitude", store.getLongitude());
-            response.put("inventory", inventory);
-
-            return ResponseEntity.ok(response);
+            return response.body(cached.json());
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Server Error");
@@ -79,4 +258,81 @@ public class StoreController {
         }
     }
 
+    // Live stock for an open store page: a "snapshot" event with the store details, then "inventory" events
+    // with that store's changes. Errors have no body, since this only produces text/event-stream
+    @GetMapping(value = "/stores/{storeId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStore(@PathVariable Long storeId) {
+        try {
+            Optional<SseEmitter> emitter = storeStreamHub.open(storeId);
+            if (emitter.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter.get());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "30").build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // In-stock item counts per category, so the store page can render its category list before any items
+    @GetMapping("/stores/{storeId}/categories")
+    public ResponseEntity<?> getStoreCategories(@PathVariable Long storeId) {
+        try {
+            return ResponseEntity.ok(storeService.getInventoryCategories(storeId));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Server Error");
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    // Inventory changes after the since cursor, oldest first; pass back nextCursor to continue
+    @GetMapping("/inventory/changes")
+    public ResponseEntity<?> getInventoryChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Long storeId,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(inventoryChangeFeed.getChanges(since, storeId, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Server Error");
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    // gzip listed in Accept-Encoding and not refused with q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.matches("q=0\\.0*")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
 }
@@ -1,17 +1,30 @@
 package com.example.shopit.controller;
 
+import com.example.shopit.dto.BulkInventoryResultDto;
+import com.example.shopit.dto.InventoryDeltaDto;
+import com.example.shopit.dto.InventoryDeltaResultDto;
+import com.example.shopit.dto.InventoryImportStatusDto;
+import com.example.shopit.dto.InventoryPageDto;
+import com.example.shopit.dto.InventorySyncDto;
 import com.example.shopit.dto.InventoryUpdateDto;
+import com.example.shopit.dto.ProductPageDto;
 import com.example.shopit.dto.StoreRegistrationDto;
 import com.example.shopit.dto.StoreOwnershipDto;
 import com.example.shopit.dto.StoreDto;
 import com.example.shopit.entity.*;
 import com.example.shopit.repository.*;
+import com.example.shopit.service.InventoryImportService;
+import com.example.shopit.service.ProductCatalogService;
+import com.example.shopit.service.StoreAccessControl;
 import com.example.shopit.service.StoreManagementService;
+import com.example.shopit.service.StoreService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,13 +40,19 @@ public class StoreManagementController {
     private StoreManagementService storeManagementService;
 
     @Autowired
-    private StoreOwnerRepository storeOwnerRepository;
+    private StoreService storeService;
+
+    @Autowired
+    private InventoryImportService inventoryImportService;
 
     @Autowired
-    private InventoryRepository inventoryRepository;
+    private StoreAccessControl storeAccessControl;
 
     @Autowired
-    private ProductRepository productRepository;
+    private StoreOwnerRepository storeOwnerRepository;
+
+    @Autowired
+    private ProductCatalogService productCatalogService;
 
     // Register a new store
     @PostMapping("/register")
@@ -102,20 +121,19 @@ public class StoreManagementController {
             @PathVariable Long storeId,
             @RequestHeader("Store-Owner-Email") String email) {
         try {
-            // Find store owner auth by email
-            Optional<StoreOwner> ownership = storeOwnerRepository.findActiveStoresByEmail(email)
-                .stream()
-                .filter(so -> so.getStore().getId().equals(storeId))
-                .findFirst();
-                
-            if (ownership.isEmpty()) {
+            if (!storeAccessControl.hasAccess(email, storeId)) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied. You don't own this store.");
                 return ResponseEntity.status(403).body(error);
             }
 
-            Store store = ownership.get().getStore();
-            return ResponseEntity.ok(store);
+            Optional<Store> store = storeService.getStoreById(storeId);
+            if (store.isEmpty()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Store not found");
+                return ResponseEntity.status(404).body(error);
+            }
+            return ResponseEntity.ok(store.get());
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to fetch store details");
@@ -145,19 +163,14 @@ public class StoreManagementController {
             @PathVariable Long storeId,
             @RequestHeader("Store-Owner-Email") String email) {
         try {
-            // Find store owner auth by email and verify store ownership
-            Optional<StoreOwner> ownership = storeOwnerRepository.findActiveStoresByEmail(email)
-                .stream()
-                .filter(so -> so.getStore().getId().equals(storeId))
-                .findFirst();
-                
-            if (ownership.isEmpty()) {
+            // Verify store ownership
+            if (!storeAccessControl.hasAccess(email, storeId)) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied");
                 return ResponseEntity.status(403).body(error);
             }
 
-            List<Inventory> inventory = inventoryRepository.findByStoreId(storeId);
+            List<Inventory> inventory = storeManagementService.getInventory(storeId);
             return ResponseEntity.ok(inventory);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -166,6 +179,66 @@ public class StoreManagementController {
         }
     }
 
+    // One keyset page of a store's inventory (out-of-stock items included), with the next page's cursor
+    // in X-Next-Cursor
+    @GetMapping("/store/{storeId}/inventory/page")
+    public ResponseEntity<?> getStoreInventoryPage(
+            @PathVariable Long storeId,
+            @RequestHeader("Store-Owner-Email") String email,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        try {
+            if (!storeAccessControl.hasAccess(email, storeId)) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied");
+                return ResponseEntity.status(403).body(error);
+            }
+
+            InventoryPageDto page = storeService.getInventoryPage(storeId, false, category, q, size, cursor);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(StoreController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to fetch inventory");
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    // Incremental refresh: changed rows and deletions since the token from the previous response
+    @GetMapping("/store/{storeId}/inventory/sync")
+    public ResponseEntity<?> syncStoreInventory(
+            @PathVariable Long storeId,
+            @RequestHeader("Store-Owner-Email") String email,
+            @RequestParam(required = false) String since) {
+        try {
+            if (!storeAccessControl.hasAccess(email, storeId)) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied");
+                return ResponseEntity.status(403).body(error);
+            }
+
+            InventorySyncDto sync = storeManagementService.getInventorySince(storeId, since);
+            return ResponseEntity.ok(sync);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to fetch inventory");
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
     // Update inventory item
     @PutMapping("/store/{storeId}/inventory")
     public ResponseEntity<?> updateInventory(
@@ -198,6 +271,92 @@ public class StoreManagementController {
         }
     }
 
+    // Add to or subtract from an item's stock, e.g. {"delta": -2} for a sale of two
+    // 409 with the current quantity when failIfNegative (the default) and there isn't enough stock
+    // With failIfNegative false the quantity stops at 0 and the response carries clamped and appliedDelta
+    @PostMapping("/store/{storeId}/inventory/{productId}/delta")
+    public ResponseEntity<?> adjustInventoryQuantity(
+            @PathVariable Long storeId,
+            @PathVariable Long productId,
+            @RequestHeader("Store-Owner-Email") String email,
+            @Valid @RequestBody InventoryDeltaDto deltaRequest) {
+        try {
+            boolean failIfNegative = deltaRequest.getFailIfNegative() == null || deltaRequest.getFailIfNegative();
+            InventoryDeltaResultDto result = storeManagementService.adjustInventoryQuantity(
+                    storeId, email, productId, deltaRequest.getDelta(), failIfNegative);
+            if (!result.isApplied()) {
+                return ResponseEntity.status(409).body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // Add or update many inventory items at once; the response reports each row as upserted or rejected
+    @PostMapping("/store/{storeId}/inventory/bulk")
+    public ResponseEntity<?> bulkUpsertInventory(
+            @PathVariable Long storeId,
+            @RequestHeader("Store-Owner-Email") String email,
+            @RequestBody List<InventoryUpdateDto> rows) {
+        try {
+            BulkInventoryResultDto result = storeManagementService.bulkUpsertInventory(storeId, email, rows);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // Import a stock file (text/csv with a header row, or application/x-ndjson) in the background
+    // Returns 202 with the job; poll the Location for rows processed, rejected and throughput
+    @PostMapping("/store/{storeId}/inventory/import")
+    public ResponseEntity<?> importInventory(
+            @PathVariable Long storeId,
+            @RequestHeader("Store-Owner-Email") String email,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestParam(required = false) String format,
+            InputStream body) {
+        try {
+            InventoryImportStatusDto job = inventoryImportService.startImport(storeId, email, format, contentType, body);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION,
+                            "/api/store-management/store/" + storeId + "/inventory/import/" + job.getJobId())
+                    .body(job);
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(503).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/store/{storeId}/inventory/import/{jobId}")
+    public ResponseEntity<?> getInventoryImportStatus(
+            @PathVariable Long storeId,
+            @PathVariable String jobId,
+            @RequestHeader("Store-Owner-Email") String email) {
+        try {
+            Optional<InventoryImportStatusDto> job = inventoryImportService.getImportStatus(storeId, email, jobId);
+            if (job.isEmpty()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Import job not found");
+                return ResponseEntity.status(404).body(error);
+            }
+            return ResponseEntity.ok(job.get());
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     // Delete inventory item
     @DeleteMapping("/store/{storeId}/inventory/{productId}")
     public ResponseEntity<?> deleteInventoryItem(
@@ -217,12 +376,26 @@ public class StoreManagementController {
         }
     }
 
-    // Get all products (for adding to inventory)
+    // Product catalog for adding to inventory: one keyset page of (id, name, category, barcode), filtered by
+    // name substring (q), category and barcode. X-Next-Cursor is set when there are more
     @GetMapping("/products")
-    public ResponseEntity<?> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String barcode,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
         try {
-            List<Product> products = productRepository.findAll();
-            return ResponseEntity.ok(products);
+            ProductPageDto page = productCatalogService.getPage(q, category, barcode, size, cursor);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(StoreController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to fetch products");
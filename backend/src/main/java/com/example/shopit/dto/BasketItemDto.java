@@ -0,0 +1,59 @@
+package com.example.shopit.dto;
+
+import java.math.BigDecimal;
+
+public class BasketItemDto {
+    private String term;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal price;
+
+    public BasketItemDto(String term, Long productId, String productName, Integer quantity, BigDecimal price) {
+        this.term = term;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
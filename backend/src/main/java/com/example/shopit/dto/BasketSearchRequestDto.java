@@ -0,0 +1,70 @@
+package com.example.shopit.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BasketSearchRequestDto {
+    @NotEmpty(message = "At least one search term is required")
+    @Size(max = 50, message = "A basket can contain at most 50 terms")
+    private List<@NotBlank(message = "Search terms must not be blank") String> terms;
+
+    @NotNull(message = "Latitude is required")
+    private Double lat;
+
+    @NotNull(message = "Longitude is required")
+    private Double lng;
+
+    @Positive(message = "Radius must be positive")
+    private Double radius = 10.0;
+
+    @Positive(message = "Limit must be positive")
+    private Integer limit;
+
+    public BasketSearchRequestDto() {}
+
+    // Getters and Setters
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    public void setTerms(List<String> terms) {
+        this.terms = terms;
+    }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(Double lat) {
+        this.lat = lat;
+    }
+
+    public Double getLng() {
+        return lng;
+    }
+
+    public void setLng(Double lng) {
+        this.lng = lng;
+    }
+
+    public Double getRadius() {
+        return radius;
+    }
+
+    public void setRadius(Double radius) {
+        this.radius = radius;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.shopit.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BasketStoreResultDto {
+    private Long id;
+    private String name;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
+    private int matchedCount;
+    private int totalTerms;
+    private List<BasketItemDto> items = new ArrayList<>();
+    private List<String> missingTerms = new ArrayList<>();
+
+    public BasketStoreResultDto(Long id, String name, String address, Double latitude, Double longitude, Double distanceKm, int totalTerms) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceKm = distanceKm;
+        this.totalTerms = totalTerms;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public int getMatchedCount() {
+        return matchedCount;
+    }
+
+    public void setMatchedCount(int matchedCount) {
+        this.matchedCount = matchedCount;
+    }
+
+    public int getTotalTerms() {
+        return totalTerms;
+    }
+
+    public void setTotalTerms(int totalTerms) {
+        this.totalTerms = totalTerms;
+    }
+
+    public List<BasketItemDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BasketItemDto> items) {
+        this.items = items;
+    }
+
+    public List<String> getMissingTerms() {
+        return missingTerms;
+    }
+
+    public void setMissingTerms(List<String> missingTerms) {
+        this.missingTerms = missingTerms;
+    }
+}
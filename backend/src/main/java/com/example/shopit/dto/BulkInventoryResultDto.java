@@ -0,0 +1,39 @@
+package com.example.shopit.dto;
+
+import java.util.List;
+
+public class BulkInventoryResultDto {
+    private int upserted;
+    private int rejected;
+    private List<BulkInventoryRowResultDto> results;
+
+    public BulkInventoryResultDto(int upserted, int rejected, List<BulkInventoryRowResultDto> results) {
+        this.upserted = upserted;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getUpserted() {
+        return upserted;
+    }
+
+    public void setUpserted(int upserted) {
+        this.upserted = upserted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<BulkInventoryRowResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkInventoryRowResultDto> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.shopit.dto;
+
+public class BulkInventoryRowResultDto {
+    // Position of the row in the request
+    private int index;
+    private Long productId;
+    // upserted or rejected
+    private String status;
+    private String error;
+
+    public BulkInventoryRowResultDto(int index, Long productId, String status, String error) {
+        this.index = index;
+        this.productId = productId;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.shopit.dto;
+
+public class CategoryFacetDto {
+    private String category;
+    private long count;
+
+    public CategoryFacetDto(String category, long count) {
+        this.category = category;
+        this.count = count;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.shopit.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class InventoryChangeDto {
+    // Position in the change feed
+    private Long seq;
+    private Long storeId;
+    private Long productId;
+    private Integer quantity;
+    private BigDecimal price;
+    private boolean deleted;
+    private LocalDateTime changedAt;
+
+    public InventoryChangeDto(Long seq, Long storeId, Long productId, Integer quantity, BigDecimal price,
+                              Boolean deleted, LocalDateTime changedAt) {
+        this.seq = seq;
+        this.storeId = storeId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.price = price;
+        this.deleted = Boolean.TRUE.equals(deleted);
+        this.changedAt = changedAt;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(Long storeId) {
+        this.storeId = storeId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.shopit.dto;
+
+import java.util.List;
+
+public class InventoryChangePageDto {
+    private List<InventoryChangeDto> changes;
+    // Pass as since to continue; unchanged when there was nothing new
+    private String nextCursor;
+
+    public InventoryChangePageDto(List<InventoryChangeDto> changes, String nextCursor) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<InventoryChangeDto> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<InventoryChangeDto> changes) {
+        this.changes = changes;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.shopit.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class InventoryDeltaDto {
+    // Added to the current quantity; negative for sales
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+
+    // When false, a decrement past zero leaves the quantity at 0 instead of being refused; the response's
+    // clamped and appliedDelta say how much was actually taken off
+    private Boolean failIfNegative = true;
+
+    public InventoryDeltaDto() {}
+
+    public InventoryDeltaDto(Integer delta, Boolean failIfNegative) {
+        this.delta = delta;
+        this.failIfNegative = failIfNegative;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Boolean getFailIfNegative() {
+        return failIfNegative;
+    }
+
+    public void setFailIfNegative(Boolean failIfNegative) {
+        this.failIfNegative = failIfNegative;
+    }
+}
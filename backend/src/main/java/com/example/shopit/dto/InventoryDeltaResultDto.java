@@ -0,0 +1,83 @@
+package com.example.shopit.dto;
+
+import java.math.BigDecimal;
+
+public class InventoryDeltaResultDto {
+    private Long storeId;
+    private Long productId;
+    // The new quantity, or the unchanged one when the delta was refused
+    private Integer quantity;
+    private BigDecimal price;
+    private boolean applied;
+    // The change actually made to the quantity; less than requested when clamped
+    private int appliedDelta;
+    // A decrement without the floor went past zero and the quantity stopped at 0
+    private boolean clamped;
+
+    public InventoryDeltaResultDto(Long storeId, Long productId, Integer quantity, BigDecimal price, boolean applied,
+                                   int appliedDelta, boolean clamped) {
+        this.storeId = storeId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.price = price;
+        this.applied = applied;
+        this.appliedDelta = appliedDelta;
+        this.clamped = clamped;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(Long storeId) {
+        this.storeId = storeId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public int getAppliedDelta() {
+        return appliedDelta;
+    }
+
+    public void setAppliedDelta(int appliedDelta) {
+        this.appliedDelta = appliedDelta;
+    }
+
+    public boolean isClamped() {
+        return clamped;
+    }
+
+    public void setClamped(boolean clamped) {
+        this.clamped = clamped;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.shopit.dto;
+
+import java.util.List;
+
+public class InventoryPageDto {
+    private List<InventoryDto> items;
+    private String nextCursor;
+
+    public InventoryPageDto(List<InventoryDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<InventoryDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<InventoryDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
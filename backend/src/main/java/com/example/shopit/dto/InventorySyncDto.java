@@ -0,0 +1,55 @@
+package com.example.shopit.dto;
+
+import com.example.shopit.entity.Inventory;
+
+import java.util.List;
+
+public class InventorySyncDto {
+    // Rows added or changed since the token (every row when reset)
+    private List<Inventory> items;
+    // Products removed from the store since the token
+    private List<Long> deleted;
+    // Pass as since on the next refresh
+    private String token;
+    // The token was too old to sync from: items is the full inventory and replaces the client's copy
+    private boolean reset;
+
+    public InventorySyncDto(List<Inventory> items, List<Long> deleted, String token, boolean reset) {
+        this.items = items;
+        this.deleted = deleted;
+        this.token = token;
+        this.reset = reset;
+    }
+
+    public List<Inventory> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Inventory> items) {
+        this.items = items;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.shopit.dto;
+
+import java.util.List;
+
+public class ProductPageDto {
+    private List<ProductSummaryDto> items;
+    private String nextCursor;
+
+    public ProductPageDto(List<ProductSummaryDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProductSummaryDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ProductSummaryDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.shopit.dto;
+
+// Catalog row for picking a product to stock; the full Product is only needed once one is chosen
+public class ProductSummaryDto {
+    private Long id;
+    private String name;
+    private String category;
+    private String barcode;
+
+    public ProductSummaryDto(Long id, String name, String category, String barcode) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.barcode = barcode;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.shopit.dto;
+
+import java.util.List;
+
+// /api/search body when facets=true: the page of results plus match counts per category for the whole search
+public class SearchFacetedResultsDto {
+    private List<SearchResultDto> results;
+    private List<CategoryFacetDto> facets;
+
+    public SearchFacetedResultsDto(List<SearchResultDto> results, List<CategoryFacetDto> facets) {
+        this.results = results;
+        this.facets = facets;
+    }
+
+    public List<SearchResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<SearchResultDto> results) {
+        this.results = results;
+    }
+
+    public List<CategoryFacetDto> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(List<CategoryFacetDto> facets) {
+        this.facets = facets;
+    }
+}
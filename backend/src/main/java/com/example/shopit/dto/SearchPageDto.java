@@ -0,0 +1,52 @@
+package com.example.shopit.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public class SearchPageDto {
+    private List<SearchResultDto> results;
+    private String nextCursor;
+    // Set when nothing matched the query as typed and these results are for a spelling correction
+    private String correctedQuery;
+    // Only computed when requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CategoryFacetDto> facets;
+
+    public SearchPageDto(List<SearchResultDto> results, String nextCursor) {
+        this.results = results;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<SearchResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<SearchResultDto> results) {
+        this.results = results;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getCorrectedQuery() {
+        return correctedQuery;
+    }
+
+    public void setCorrectedQuery(String correctedQuery) {
+        this.correctedQuery = correctedQuery;
+    }
+
+    public List<CategoryFacetDto> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(List<CategoryFacetDto> facets) {
+        this.facets = facets;
+    }
+}
@@ -1,23 +1,44 @@
 package com.example.shopit.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
 public class SearchResultDto {
     private Long id;
     private String name;
     private String address;
     private Double latitude;
     private Double longitude;
+    private Long productId;
     private String productName;
+    private String category;
     private Integer quantity;
+    private BigDecimal price;
     private Double distanceKm;
+    // Only set for sort=relevance
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SearchScoreDto score;
 
     public SearchResultDto(Long id, String name, String address, Double latitude, Double longitude, String productName, Integer quantity, Double distanceKm) {
+        this(id, name, address, latitude, longitude, null, productName, quantity, null, distanceKm);
+    }
+
+    public SearchResultDto(Long id, String name, String address, Double latitude, Double longitude, Long productId, String productName, Integer quantity, BigDecimal price, Double distanceKm) {
+        this(id, name, address, latitude, longitude, productId, productName, null, quantity, price, distanceKm);
+    }
+
+    public SearchResultDto(Long id, String name, String address, Double latitude, Double longitude, Long productId, String productName, String category, Integer quantity, BigDecimal price, Double distanceKm) {
         this.id = id;
         this.name = name;
         this.address = address;
         this.latitude = latitude;
         this.longitude = longitude;
+        this.productId = productId;
         this.productName = productName;
+        this.category = category;
         this.quantity = quantity;
+        this.price = price;
         this.distanceKm = distanceKm;
     }
 
@@ -61,6 +82,14 @@ public class SearchResultDto {
         this.longitude = longitude;
     }
 
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
     public String getProductName() {
         return productName;
     }
@@ -69,6 +98,14 @@ public class SearchResultDto {
         this.productName = productName;
     }
 
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
     public Integer getQuantity() {
         return quantity;
     }
@@ -77,6 +114,14 @@ public class SearchResultDto {
         this.quantity = quantity;
     }
 
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
     public Double getDistanceKm() {
         return distanceKm;
     }
@@ -84,4 +129,12 @@ public class SearchResultDto {
     public void setDistanceKm(Double distanceKm) {
         this.distanceKm = distanceKm;
     }
+
+    public SearchScoreDto getScore() {
+        return score;
+    }
+
+    public void setScore(SearchScoreDto score) {
+        this.score = score;
+    }
 }
@@ -0,0 +1,69 @@
+package com.example.shopit.dto;
+
+// Relevance of one search result: each component is in [0, 1], total is their weighted sum
+public class SearchScoreDto {
+    private double total;
+    private double distance;
+    private double quantity;
+    private double price;
+    private double match;
+    // exact, prefix or substring
+    private String matchType;
+
+    public SearchScoreDto(double total, double distance, double quantity, double price, double match, String matchType) {
+        this.total = total;
+        this.distance = distance;
+        this.quantity = quantity;
+        this.price = price;
+        this.match = match;
+        this.matchType = matchType;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    public double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(double quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public double getMatch() {
+        return match;
+    }
+
+    public void setMatch(double match) {
+        this.match = match;
+    }
+
+    public String getMatchType() {
+        return matchType;
+    }
+
+    public void setMatchType(String matchType) {
+        this.matchType = matchType;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.shopit.dto;
+
+import java.util.List;
+
+public class StoreDetailsDto {
+    private Long id;
+    private String name;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private List<InventoryDto> inventory;
+
+    public StoreDetailsDto(Long id, String name, String address, Double latitude, Double longitude, List<InventoryDto> inventory) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.inventory = inventory;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public List<InventoryDto> getInventory() {
+        return inventory;
+    }
+
+    public void setInventory(List<InventoryDto> inventory) {
+        this.inventory = inventory;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.shopit.dto;
+
+public class SuggestionDto {
+    private String text;
+    // "product" or "category"
+    private String type;
+    private long weight;
+
+    public SuggestionDto(String text, String type, long weight) {
+        this.text = text;
+        this.type = type;
+        this.weight = weight;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public void setWeight(long weight) {
+        this.weight = weight;
+    }
+}
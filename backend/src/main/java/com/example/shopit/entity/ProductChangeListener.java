@@ -0,0 +1,31 @@
+package com.example.shopit.entity;
+
+import com.example.shopit.event.ProductChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Instantiated by Hibernate through Spring's bean container, so injection works here
+public class ProductChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Product product) {
+        publish(product, false);
+    }
+
+    @PostRemove
+    public void onRemove(Product product) {
+        publish(product, true);
+    }
+
+    private void publish(Product product, boolean deleted) {
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                product.getId(), product.getName(), product.getCategory(), product.getBarcode(), deleted));
+    }
+}
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "store_owners")
+@EntityListeners(StoreOwnerChangeListener.class)
 public class StoreOwner {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,25 @@
+package com.example.shopit.entity;
+
+import com.example.shopit.event.StoreOwnerChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Instantiated by Hibernate through Spring's bean container, so injection works here
+public class StoreOwnerChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(StoreOwner storeOwner) {
+        // Ids only; reading them from the lazy associations doesn't load anything
+        Long storeOwnerAuthId = storeOwner.getStoreOwnerAuth() == null ? null : storeOwner.getStoreOwnerAuth().getId();
+        Long storeId = storeOwner.getStore() == null ? null : storeOwner.getStore().getId();
+        eventPublisher.publishEvent(new StoreOwnerChangedEvent(storeOwnerAuthId, storeId));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.shopit.event;
+
+import java.math.BigDecimal;
+
+public class InventoryChangedEvent {
+    private final Long storeId;
+    private final Long productId;
+    private final Integer quantity;
+    private final BigDecimal price;
+    private final boolean deleted;
+
+    public InventoryChangedEvent(Long storeId, Long productId, Integer quantity, BigDecimal price, boolean deleted) {
+        this.storeId = storeId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.price = price;
+        this.deleted = deleted;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.shopit.event;
+
+import com.example.shopit.dto.InventoryChangeDto;
+
+import java.util.List;
+
+// A batch of committed inventory changes from the outbox, in feed order; published on every node
+public class InventoryFeedEvent {
+    private final List<InventoryChangeDto> changes;
+
+    public InventoryFeedEvent(List<InventoryChangeDto> changes) {
+        this.changes = changes;
+    }
+
+    public List<InventoryChangeDto> getChanges() {
+        return changes;
+    }
+}
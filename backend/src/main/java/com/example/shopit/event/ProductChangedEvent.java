@@ -0,0 +1,37 @@
+package com.example.shopit.event;
+
+public class ProductChangedEvent {
+    private final Long productId;
+    private final String name;
+    private final String category;
+    private final String barcode;
+    private final boolean deleted;
+
+    public ProductChangedEvent(Long productId, String name, String category, String barcode, boolean deleted) {
+        this.productId = productId;
+        this.name = name;
+        this.category = category;
+        this.barcode = barcode;
+        this.deleted = deleted;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
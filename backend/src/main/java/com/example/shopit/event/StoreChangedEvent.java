@@ -0,0 +1,13 @@
+package com.example.shopit.event;
+
+public class StoreChangedEvent {
+    private final Long storeId;
+
+    public StoreChangedEvent(Long storeId) {
+        this.storeId = storeId;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.shopit.event;
+
+public class StoreLocationChangedEvent {
+    private final Long storeId;
+    private final Double latitude;
+    private final Double longitude;
+
+    public StoreLocationChangedEvent(Long storeId, Double latitude, Double longitude) {
+        this.storeId = storeId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+}
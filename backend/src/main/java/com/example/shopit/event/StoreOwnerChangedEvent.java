@@ -0,0 +1,19 @@
+package com.example.shopit.event;
+
+public class StoreOwnerChangedEvent {
+    private final Long storeOwnerAuthId;
+    private final Long storeId;
+
+    public StoreOwnerChangedEvent(Long storeOwnerAuthId, Long storeId) {
+        this.storeOwnerAuthId = storeOwnerAuthId;
+        this.storeId = storeId;
+    }
+
+    public Long getStoreOwnerAuthId() {
+        return storeOwnerAuthId;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+}
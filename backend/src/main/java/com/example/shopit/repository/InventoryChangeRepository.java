@@ -0,0 +1,50 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.dto.InventoryChangeDto;
+import com.example.shopit.entity.InventoryChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Feed reads; outbox rows are written and sequenced with JdbcTemplate (InventoryChangeOutbox, InventoryChangeFeed)
+public interface InventoryChangeRepository extends JpaRepository<InventoryChange, Long> {
+
+    @Query("""
+        SELECT new com.example.shopit.dto.InventoryChangeDto(
+            c.seq, c.storeId, c.productId, c.quantity, c.price, c.deleted, c.createdAt
+        )
+        FROM InventoryChange c
+        WHERE c.seq > :since
+        ORDER BY c.seq
+        """)
+    List<InventoryChangeDto> findFeedAfter(@Param("since") Long since, Pageable pageable);
+
+    @Query("""
+        SELECT new com.example.shopit.dto.InventoryChangeDto(
+            c.seq, c.storeId, c.productId, c.quantity, c.price, c.deleted, c.createdAt
+        )
+        FROM InventoryChange c
+        WHERE c.seq > :since AND c.storeId = :storeId
+        ORDER BY c.seq
+        """)
+    List<InventoryChangeDto> findStoreFeedAfter(@Param("storeId") Long storeId, @Param("since") Long since,
+                                                Pageable pageable);
+
+    // Tombstones for delta sync, leaving out products that have been added back since
+    @Query("""
+        SELECT DISTINCT c.productId
+        FROM InventoryChange c
+        WHERE c.storeId = :storeId AND c.deleted = true AND c.createdAt > :since
+        AND NOT EXISTS (
+            SELECT 1 FROM Inventory i WHERE i.store.id = c.storeId AND i.product.id = c.productId
+        )
+        """)
+    List<Long> findDeletedProductIds(@Param("storeId") Long storeId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT coalesce(max(c.seq), 0) FROM InventoryChange c")
+    Long findMaxSeq();
+}
@@ -0,0 +1,83 @@
+package com.example.shopit.repository;
+
+public class InventoryPageCriteria {
+    private Long storeId;
+    // Public listings only show items in stock; owners see everything
+    private boolean inStockOnly;
+    // Exact category (case-insensitive) and name substring; null means no filter
+    private String category;
+    private String query;
+
+    // Keyset position (category, name, productId) of the last item already returned, and the row cap
+    private String afterCategory;
+    private String afterName;
+    private Long afterProductId;
+    private Integer limit;
+
+    public InventoryPageCriteria(Long storeId, boolean inStockOnly) {
+        this.storeId = storeId;
+        this.inStockOnly = inStockOnly;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(Long storeId) {
+        this.storeId = storeId;
+    }
+
+    public boolean isInStockOnly() {
+        return inStockOnly;
+    }
+
+    public void setInStockOnly(boolean inStockOnly) {
+        this.inStockOnly = inStockOnly;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getAfterCategory() {
+        return afterCategory;
+    }
+
+    public String getAfterName() {
+        return afterName;
+    }
+
+    public Long getAfterProductId() {
+        return afterProductId;
+    }
+
+    public void setAfter(String category, String name, Long productId) {
+        this.afterCategory = category;
+        this.afterName = name;
+        this.afterProductId = productId;
+    }
+
+    public boolean hasAfter() {
+        return afterProductId != null;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -7,11 +7,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
     @Query("""
         SELECT new com.example.shopit.dto.InventoryDto(
             p.id, 
@@ -33,7 +34,26 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<InventoryDto> findByStoreIdWithProducts(@Param("storeId") Long storeId);
 
     List<Inventory> findByStoreId(Long storeId);
+
+    // Delta sync; backed by idx_inventory_store_last_updated
+    List<Inventory> findByStoreIdAndLastUpdatedAfter(Long storeId, LocalDateTime since);
     
     Optional<Inventory> findByStoreIdAndProductId(Long storeId, Long productId);
 
+    // In-stock items per category, for the store page's category list
+    @Query("""
+        SELECT p.category, count(i)
+        FROM Inventory i
+        JOIN i.product p
+        WHERE i.store.id = :storeId
+        AND i.quantity > 0
+        GROUP BY p.category
+        ORDER BY p.category
+        """)
+    List<Object[]> countInStockByCategory(@Param("storeId") Long storeId);
+
+    // Every (store, product) pair currently in stock, for the suggestion index's per-store weights
+    @Query("SELECT i.store.id, i.product.id FROM Inventory i WHERE i.quantity > 0")
+    List<Object[]> findInStockStoreProductPairs();
+
 }
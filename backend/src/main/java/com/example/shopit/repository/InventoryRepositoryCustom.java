@@ -0,0 +1,9 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.dto.InventoryDto;
+
+import java.util.List;
+
+public interface InventoryRepositoryCustom {
+    List<InventoryDto> findPage(InventoryPageCriteria criteria);
+}
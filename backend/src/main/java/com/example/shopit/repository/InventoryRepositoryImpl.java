@@ -0,0 +1,71 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.dto.InventoryDto;
+import com.example.shopit.util.LikePatterns;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class InventoryRepositoryImpl implements InventoryRepositoryCustom {
+
+    // Uncategorized items sort first as ''; the keyset comparison has to see the same value as the ORDER BY
+    private static final String CATEGORY = "coalesce(p.category, '')";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<InventoryDto> findPage(InventoryPageCriteria criteria) {
+        StringBuilder jpql = new StringBuilder("""
+            SELECT new com.example.shopit.dto.InventoryDto(
+                p.id,
+                p.name,
+                p.description,
+                p.category,
+                p.imageUrl,
+                i.quantity,
+                i.price,
+                p.manufacturingDate,
+                p.expiryDate
+            )
+            FROM Inventory i
+            JOIN i.product p
+            WHERE i.store.id = :storeId
+            """);
+        if (criteria.isInStockOnly()) {
+            jpql.append(" AND i.quantity > 0");
+        }
+        if (criteria.getCategory() != null) {
+            jpql.append(" AND lower(p.category) = lower(:category)");
+        }
+        if (criteria.getQuery() != null) {
+            // q is matched literally: '%', '_' and '\' typed into the search aren't pattern syntax
+            jpql.append(" AND lower(p.name) LIKE lower(concat('%', :query, '%')) ESCAPE '\\'");
+        }
+        if (criteria.hasAfter()) {
+            jpql.append(" AND (").append(CATEGORY).append(" > :afterCategory OR (").append(CATEGORY)
+                    .append(" = :afterCategory AND (p.name > :afterName OR (p.name = :afterName AND p.id > :afterProductId))))");
+        }
+        jpql.append(" ORDER BY ").append(CATEGORY).append(", p.name, p.id");
+
+        TypedQuery<InventoryDto> query = entityManager.createQuery(jpql.toString(), InventoryDto.class);
+        query.setParameter("storeId", criteria.getStoreId());
+        if (criteria.getCategory() != null) {
+            query.setParameter("category", criteria.getCategory());
+        }
+        if (criteria.getQuery() != null) {
+            query.setParameter("query", LikePatterns.escape(criteria.getQuery()));
+        }
+        if (criteria.hasAfter()) {
+            query.setParameter("afterCategory", criteria.getAfterCategory());
+            query.setParameter("afterName", criteria.getAfterName());
+            query.setParameter("afterProductId", criteria.getAfterProductId());
+        }
+        if (criteria.getLimit() != null) {
+            query.setMaxResults(criteria.getLimit());
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.shopit.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+public class NearbySearchCriteria {
+    private String query;
+    // Basket search: match any of these instead of the single query
+    private List<String> queries;
+    // Exact product category (case-insensitive), or null for any
+    private String category;
+    private Double lat;
+    private Double lng;
+    private Double radius;
+
+    // Optional narrowing resolved in memory before the query runs; null means "no restriction"
+    private Collection<Long> storeIds;
+    private Collection<Long> productIds;
+
+    // Keyset position (distance key, storeId, productId) of the last row already returned, and the row cap
+    private Long afterDistanceKey;
+    private Long afterStoreId;
+    private Long afterProductId;
+    private Integer limit;
+    // Set when the caller ranks rows itself, so the database can skip the sort
+    private boolean unordered;
+
+    public NearbySearchCriteria(String query, Double lat, Double lng, Double radius) {
+        this.query = query;
+        this.lat = lat;
+        this.lng = lng;
+        this.radius = radius;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public List<String> getQueries() {
+        return queries;
+    }
+
+    public void setQueries(List<String> queries) {
+        this.queries = queries;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(Double lat) {
+        this.lat = lat;
+    }
+
+    public Double getLng() {
+        return lng;
+    }
+
+    public void setLng(Double lng) {
+        this.lng = lng;
+    }
+
+    public Double getRadius() {
+        return radius;
+    }
+
+    public void setRadius(Double radius) {
+        this.radius = radius;
+    }
+
+    public Collection<Long> getStoreIds() {
+        return storeIds;
+    }
+
+    public void setStoreIds(Collection<Long> storeIds) {
+        this.storeIds = storeIds;
+    }
+
+    public Collection<Long> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(Collection<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public Long getAfterDistanceKey() {
+        return afterDistanceKey;
+    }
+
+    public Long getAfterStoreId() {
+        return afterStoreId;
+    }
+
+    public Long getAfterProductId() {
+        return afterProductId;
+    }
+
+    public void setAfter(Long distanceKey, Long storeId, Long productId) {
+        this.afterDistanceKey = distanceKey;
+        this.afterStoreId = storeId;
+        this.afterProductId = productId;
+    }
+
+    public boolean hasAfter() {
+        return afterDistanceKey != null;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public boolean isUnordered() {
+        return unordered;
+    }
+
+    public void setUnordered(boolean unordered) {
+        this.unordered = unordered;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.shopit.repository;
+
+public class ProductCatalogCriteria {
+    // Name substring, exact category (case-insensitive) and exact barcode; null means no filter
+    private String query;
+    private String category;
+    private String barcode;
+
+    // Keyset position (name, productId) of the last product already returned, and the row cap
+    private String afterName;
+    private Long afterProductId;
+    private Integer limit;
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public boolean hasAfter() {
+        return afterProductId != null;
+    }
+
+    public void setAfter(String name, Long productId) {
+        this.afterName = name;
+        this.afterProductId = productId;
+    }
+
+    public String getAfterName() {
+        return afterName;
+    }
+
+    public Long getAfterProductId() {
+        return afterProductId;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -2,6 +2,32 @@ package com.example.shopit.repository;
 
 import com.example.shopit.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    // Served by idx_products_name_trgm (pg_trgm GIN on lower(name)); same predicate as the search query
+    @Query("SELECT p.id FROM Product p WHERE lower(p.name) like lower(concat('%', :query, '%'))")
+    List<Long> findIdsByNameContaining(@Param("query") String query);
+
+    @Query("SELECT p.id, p.name FROM Product p")
+    List<Object[]> findAllNames();
+
+    @Query("SELECT p.id, p.name, p.category FROM Product p")
+    List<Object[]> findAllNamesAndCategories();
+
+    // Products above the in-memory index's high-water id; a primary key range scan, usually empty
+    @Query("SELECT p.id, p.name, p.category FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findNamesAndCategoriesAfter(@Param("afterId") Long afterId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Served by idx_products_barcode; barcodes aren't unique, so one barcode can come back with several ids
+    @Query("SELECT p.barcode, p.id FROM Product p WHERE p.barcode IN :barcodes")
+    List<Object[]> findIdsByBarcodes(@Param("barcodes") Collection<String> barcodes);
 }
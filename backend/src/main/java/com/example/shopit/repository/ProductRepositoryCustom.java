@@ -0,0 +1,9 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.dto.ProductSummaryDto;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+    List<ProductSummaryDto> findCatalogPage(ProductCatalogCriteria criteria);
+}
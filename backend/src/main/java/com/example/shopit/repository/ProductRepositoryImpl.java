@@ -0,0 +1,58 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.dto.ProductSummaryDto;
+import com.example.shopit.util.LikePatterns;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Ordered by name and id; the name filter uses the same predicate as idx_products_name_trgm, and q
+    // is matched literally, so '%' or '_' typed into the catalog search don't act as wildcards
+    @Override
+    public List<ProductSummaryDto> findCatalogPage(ProductCatalogCriteria criteria) {
+        StringBuilder jpql = new StringBuilder("""
+            SELECT new com.example.shopit.dto.ProductSummaryDto(p.id, p.name, p.category, p.barcode)
+            FROM Product p
+            WHERE 1 = 1
+            """);
+        if (criteria.getQuery() != null) {
+            jpql.append(" AND lower(p.name) LIKE lower(concat('%', :query, '%')) ESCAPE '\\'");
+        }
+        if (criteria.getCategory() != null) {
+            jpql.append(" AND lower(p.category) = lower(:category)");
+        }
+        if (criteria.getBarcode() != null) {
+            jpql.append(" AND p.barcode = :barcode");
+        }
+        if (criteria.hasAfter()) {
+            jpql.append(" AND (p.name > :afterName OR (p.name = :afterName AND p.id > :afterProductId))");
+        }
+        jpql.append(" ORDER BY p.name, p.id");
+
+        TypedQuery<ProductSummaryDto> query = entityManager.createQuery(jpql.toString(), ProductSummaryDto.class);
+        if (criteria.getQuery() != null) {
+            query.setParameter("query", LikePatterns.escape(criteria.getQuery()));
+        }
+        if (criteria.getCategory() != null) {
+            query.setParameter("category", criteria.getCategory());
+        }
+        if (criteria.getBarcode() != null) {
+            query.setParameter("barcode", criteria.getBarcode());
+        }
+        if (criteria.hasAfter()) {
+            query.setParameter("afterName", criteria.getAfterName());
+            query.setParameter("afterProductId", criteria.getAfterProductId());
+        }
+        if (criteria.getLimit() != null) {
+            query.setMaxResults(criteria.getLimit());
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.entity.SearchHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Long> {
+
+    // How often each (lower-cased, trimmed) term was searched since the given time; uses idx_search_history_created_at
+    @Query("""
+        SELECT lower(trim(h.searchTerm)), count(h)
+        FROM SearchHistory h
+        WHERE h.createdAt >= :since
+        GROUP BY lower(trim(h.searchTerm))
+        """)
+    List<Object[]> countSearchTermsSince(@Param("since") LocalDateTime since);
+}
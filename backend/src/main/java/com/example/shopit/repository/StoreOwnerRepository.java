@@ -21,5 +21,9 @@ public interface StoreOwnerRepository extends JpaRepository<StoreOwner, Long> {
     @Query("SELECT so FROM StoreOwner so WHERE so.storeOwnerAuth.email = :email AND so.store.id = :storeId AND so.isActive = true")
     Optional<StoreOwner> findByStoreOwnerAuthEmailAndStoreId(@Param("email") String email, @Param("storeId") Long storeId);
     
+    // Just the ids, role and permissions of an owner's active stores, for StoreAccessControl
+    @Query("SELECT so.storeOwnerAuth.id, so.store.id, so.role, so.permissions FROM StoreOwner so WHERE so.storeOwnerAuth.email = :email AND so.isActive = true")
+    List<Object[]> findActiveGrantsByEmail(@Param("email") String email);
+
     List<StoreOwner> findByStoreOwnerAuthIdAndIsActive(Long storeOwnerAuthId, Boolean isActive);
 }
\ No newline at end of file
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface StoreRepository extends JpaRepository<Store, Long> {
+public interface StoreRepository extends JpaRepository<Store, Long>, StoreRepositoryCustom {
     @Query(value = """
         SELECT new com.example.shopit.dto.SearchResultDto(
             s.id,
@@ -42,4 +42,30 @@ public interface StoreRepository extends JpaRepository<Store, Long> {
             @Param("lng") Double lng,
             @Param("radius") Double radius
     );
+
+    @Query("SELECT s.id, s.latitude, s.longitude FROM Store s")
+    List<Object[]> findAllLocations();
+
+    // What the store details response depends on: store edits, inventory edits and inventory deletes
+    @Query("""
+        SELECT s.updatedAt,
+               (SELECT max(i.lastUpdated) FROM Inventory i WHERE i.store.id = s.id),
+               (SELECT count(i) FROM Inventory i WHERE i.store.id = s.id)
+        FROM Store s
+        WHERE s.id = :storeId
+        """)
+    List<Object[]> findVersionById(@Param("storeId") Long storeId);
+
+    // Store and in-stock inventory in one round trip; a store without stock still yields one row
+    @Query("""
+        SELECT s.id, s.name, s.address, s.latitude, s.longitude,
+               p.id, p.name, p.description, p.category, p.imageUrl,
+               i.quantity, i.price, p.manufacturingDate, p.expiryDate
+        FROM Store s
+        LEFT JOIN s.inventory i ON i.quantity > 0
+        LEFT JOIN i.product p
+        WHERE s.id = :storeId
+        ORDER BY p.category, p.name
+        """)
+    List<Object[]> findDetailsById(@Param("storeId") Long storeId);
 }
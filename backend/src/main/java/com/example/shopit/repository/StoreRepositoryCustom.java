@@ -0,0 +1,16 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.dto.SearchResultDto;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface StoreRepositoryCustom {
+    List<SearchResultDto> searchNearby(NearbySearchCriteria criteria);
+
+    List<SearchResultDto> searchNearbyPostgis(NearbySearchCriteria criteria);
+
+    Stream<SearchResultDto> streamNearby(NearbySearchCriteria criteria, int fetchSize);
+
+    Stream<SearchResultDto> streamNearbyPostgis(NearbySearchCriteria criteria, int fetchSize);
+}
@@ -0,0 +1,200 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.util.GeoUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class StoreRepositoryImpl implements StoreRepositoryCustom {
+
+    // Identical in JPQL and native SQL, so both search modes compute the same distance
+    private static final String DISTANCE = """
+        (6371 * acos(cos(radians(:lat)) * cos(radians(s.latitude)) *
+                     cos(radians(s.longitude) - radians(:lng)) +
+                     sin(radians(:lat)) * sin(radians(s.latitude))))""";
+
+    // Rows are ordered and paged by whole metres (SearchCursor.distanceKey), not by the raw double: distances
+    // recomputed in Java for cached pages can differ from the database's in the last bit, and an exact
+    // comparison would then skip or repeat the row a cursor points at
+    private static final String DISTANCE_KEY = "floor(" + DISTANCE + " * 1000)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SearchResultDto> searchNearby(NearbySearchCriteria criteria) {
+        @SuppressWarnings("unchecked")
+        List<SearchResultDto> results = createJpqlQuery(criteria).getResultList();
+        return results;
+    }
+
+    @Override
+    public List<SearchResultDto> searchNearbyPostgis(NearbySearchCriteria criteria) {
+        List<SearchResultDto> results = new ArrayList<>();
+        for (Object row : createPostgisQuery(criteria).getResultList()) {
+            results.add(toSearchResult((Object[]) row));
+        }
+        return results;
+    }
+
+    // Rows are pulled from a server-side cursor fetchSize at a time; closing the stream closes the cursor
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<SearchResultDto> streamNearby(NearbySearchCriteria criteria, int fetchSize) {
+        Query query = createJpqlQuery(criteria);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    @Override
+    public Stream<SearchResultDto> streamNearbyPostgis(NearbySearchCriteria criteria, int fetchSize) {
+        Query query = createPostgisQuery(criteria);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return ((Stream<?>) query.getResultStream()).map(row -> toSearchResult((Object[]) row));
+    }
+
+    private Query createJpqlQuery(NearbySearchCriteria criteria) {
+        StringBuilder jpql = new StringBuilder("""
+            SELECT new com.example.shopit.dto.SearchResultDto(
+                s.id,
+                s.name,
+                s.address,
+                s.latitude,
+                s.longitude,
+                p.id,
+                p.name,
+                p.category,
+                i.quantity,
+                i.price,
+                CAST(%s as double)
+            )
+            FROM Store s
+            join s.inventory i
+            join i.product p
+            where i.quantity > 0
+            and %s <= :radius
+            """.formatted(DISTANCE, DISTANCE));
+        appendFilters(jpql, criteria, "lower(p.name) like lower(concat('%', :query, '%'))");
+        if (!criteria.isUnordered()) {
+            jpql.append(" order by ").append(DISTANCE_KEY).append(", s.id, p.id");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString(), SearchResultDto.class);
+        bindParameters(query, criteria);
+        return query;
+    }
+
+    // ST_DWithin on the same geography expression as idx_stores_location_geography lets PostGIS narrow by
+    // index, in metres and across the antimeridian; the spherical distance is then applied to the few
+    // remaining rows so results match the JPQL path
+    private Query createPostgisQuery(NearbySearchCriteria criteria) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT s.id,
+                   s.name,
+                   s.address,
+                   s.latitude,
+                   s.longitude,
+                   p.id AS product_id,
+                   p.name AS product_name,
+                   p.category,
+                   i.quantity,
+                   i.price,
+                   %s AS distance_km
+            FROM stores s
+            JOIN inventory i ON i.store_id = s.id
+            JOIN products p ON p.id = i.product_id
+            WHERE ST_DWithin(CAST(ST_SetSRID(ST_MakePoint(s.longitude, s.latitude), 4326) AS geography),
+                             CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                             :boundMetres, false)
+            AND i.quantity > 0
+            AND %s <= :radius
+            """.formatted(DISTANCE, DISTANCE));
+        appendFilters(sql, criteria, "lower(p.name) LIKE lower(concat('%', :query, '%'))");
+        if (!criteria.isUnordered()) {
+            sql.append(" ORDER BY ").append(DISTANCE_KEY).append(", s.id, p.id");
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        bindParameters(query, criteria);
+        query.setParameter("boundMetres", GeoUtils.boundingMetres(criteria.getRadius()));
+        return query;
+    }
+
+    private static SearchResultDto toSearchResult(Object[] columns) {
+        return new SearchResultDto(
+                ((Number) columns[0]).longValue(),
+                (String) columns[1],
+                (String) columns[2],
+                ((Number) columns[3]).doubleValue(),
+                ((Number) columns[4]).doubleValue(),
+                ((Number) columns[5]).longValue(),
+                (String) columns[6],
+                (String) columns[7],
+                ((Number) columns[8]).intValue(),
+                (BigDecimal) columns[9],
+                ((Number) columns[10]).doubleValue());
+    }
+
+    private void appendFilters(StringBuilder statement, NearbySearchCriteria criteria, String nameMatch) {
+        if (criteria.getStoreIds() != null) {
+            statement.append(" and s.id in :storeIds");
+        }
+        if (criteria.getProductIds() != null) {
+            statement.append(" and p.id in :productIds");
+        } else if (criteria.getQueries() != null) {
+            // Any of several terms (basket search); :query is replaced by :query0, :query1, ...
+            statement.append(" and (");
+            for (int i = 0; i < criteria.getQueries().size(); i++) {
+                statement.append(i == 0 ? "" : " or ").append(nameMatch.replace(":query", ":query" + i));
+            }
+            statement.append(")");
+        } else {
+            statement.append(" and ").append(nameMatch);
+        }
+        if (criteria.getCategory() != null) {
+            statement.append(" and lower(p.category) = lower(:category)");
+        }
+        if (criteria.hasAfter()) {
+            statement.append(" and (").append(DISTANCE_KEY).append(" > :afterDistanceKey or (").append(DISTANCE_KEY)
+                    .append(" = :afterDistanceKey and (s.id > :afterStoreId or (s.id = :afterStoreId and p.id > :afterProductId))))");
+        }
+    }
+
+    private void bindParameters(Query query, NearbySearchCriteria criteria) {
+        query.setParameter("lat", criteria.getLat());
+        query.setParameter("lng", criteria.getLng());
+        query.setParameter("radius", criteria.getRadius());
+        if (criteria.getStoreIds() != null) {
+            query.setParameter("storeIds", criteria.getStoreIds());
+        }
+        if (criteria.getProductIds() != null) {
+            query.setParameter("productIds", criteria.getProductIds());
+        } else if (criteria.getQueries() != null) {
+            for (int i = 0; i < criteria.getQueries().size(); i++) {
+                query.setParameter("query" + i, criteria.getQueries().get(i));
+            }
+        } else {
+            query.setParameter("query", criteria.getQuery());
+        }
+        if (criteria.getCategory() != null) {
+            query.setParameter("category", criteria.getCategory());
+        }
+        if (criteria.hasAfter()) {
+            query.setParameter("afterDistanceKey", criteria.getAfterDistanceKey());
+            query.setParameter("afterStoreId", criteria.getAfterStoreId());
+            query.setParameter("afterProductId", criteria.getAfterProductId());
+        }
+        if (criteria.getLimit() != null) {
+            query.setMaxResults(criteria.getLimit());
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.shopit.service;
+
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// SymSpell-style deletion dictionary over product name tokens, for correcting misspelled search terms
+@Component
+public class FuzzyTermIndex {
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 3;
+    // A token has O(length^maxEditDistance) deletes; longer ones are left as typed rather than corrected
+    static final int MAX_TOKEN_LENGTH = 32;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${shopit.search.fuzzy.max-edit-distance:2}")
+    private int maxEditDistance;
+
+    @Value("${shopit.search.fuzzy.max-suggestions:3}")
+    private int maxSuggestions;
+
+    // Longer queries (public input) aren't corrected at all
+    @Value("${shopit.search.fuzzy.max-query-length:100}")
+    private int maxQueryLength;
+
+    private volatile Dictionary dictionary;
+    // Product changes seen while a rebuild reads the table, replayed onto the fresh dictionary before the swap
+    // (a null name means removed)
+    private Map<Long, String> changedDuringRebuild;
+    private final Object rebuildLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${shopit.search.product-index.refresh-ms:300000}",
+            initialDelayString = "${shopit.search.product-index.refresh-ms:300000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            Dictionary fresh = new Dictionary(maxEditDistance);
+            try {
+                for (Object[] row : productRepository.findAllNames()) {
+                    fresh.putProduct((Long) row[0], (String) row[1]);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                changedDuringRebuild.forEach((productId, name) -> {
+                    if (name == null) {
+                        fresh.removeProduct(productId);
+                    } else {
+                        fresh.putProduct(productId, name);
+                    }
+                });
+                changedDuringRebuild = null;
+                dictionary = fresh;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (event.getProductId() == null || (!event.isDeleted() && event.getName() == null)) {
+            return;
+        }
+        Dictionary current = dictionary;
+        if (current != null) {
+            if (event.isDeleted()) {
+                current.removeProduct(event.getProductId());
+            } else {
+                current.putProduct(event.getProductId(), event.getName());
+            }
+        }
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(event.getProductId(), event.isDeleted() ? null : event.getName());
+        }
+    }
+
+    // Rewrites unknown tokens of the query to their closest known tokens; best candidates first
+    public List<String> expand(String query) {
+        Dictionary current = dictionary;
+        if (current == null || !isCorrectable(query)) {
+            return List.of();
+        }
+        String lowerQuery = query.trim().toLowerCase(Locale.ROOT);
+
+        // Corrections for the first unknown token give the alternatives; later unknown tokens take their best match
+        List<String> variants = new ArrayList<>();
+        variants.add("");
+        Matcher matcher = TOKEN.matcher(lowerQuery);
+        int position = 0;
+        boolean corrected = false;
+        while (matcher.find()) {
+            String separator = lowerQuery.substring(position, matcher.start());
+            String token = matcher.group();
+            position = matcher.end();
+
+            List<String> replacements = List.of(token);
+            if (token.length() >= MIN_TOKEN_LENGTH && token.length() <= MAX_TOKEN_LENGTH
+                    && !current.containsToken(token)) {
+                List<String> suggestions = current.lookup(token, editDistanceFor(token), corrected ? 1 : maxSuggestions);
+                if (suggestions.isEmpty()) {
+                    return List.of();
+                }
+                replacements = suggestions;
+                corrected = true;
+            }
+
+            List<String> next = new ArrayList<>();
+            for (String variant : variants) {
+                for (String replacement : replacements) {
+                    next.add(variant + separator + replacement);
+                }
+            }
+            variants = next;
+        }
+        if (!corrected) {
+            return List.of();
+        }
+
+        String tail = lowerQuery.substring(position);
+        Set<String> expanded = new LinkedHashSet<>();
+        for (String variant : variants) {
+            expanded.add(variant + tail);
+        }
+        return new ArrayList<>(expanded);
+    }
+
+    public boolean isCorrectable(String query) {
+        return query != null && query.length() <= maxQueryLength;
+    }
+
+    // Short tokens get a tighter bound, otherwise nearly everything is "close"
+    private int editDistanceFor(String token) {
+        return token.length() <= 4 ? Math.min(1, maxEditDistance) : maxEditDistance;
+    }
+
+    private record Suggestion(String token, int distance, int count) {
+    }
+
+    private static final class Dictionary {
+        private final int maxEditDistance;
+        private final Map<Long, Set<String>> productTokens = new ConcurrentHashMap<>();
+        private final Map<String, Integer> tokenCounts = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> deletes = new ConcurrentHashMap<>();
+
+        private Dictionary(int maxEditDistance) {
+            this.maxEditDistance = maxEditDistance;
+        }
+
+        private boolean containsToken(String token) {
+            return tokenCounts.containsKey(token);
+        }
+
+        private synchronized void putProduct(Long productId, String name) {
+            if (productId == null || name == null) {
+                return;
+            }
+            removeProduct(productId);
+            Set<String> tokens = new HashSet<>();
+            Matcher matcher = TOKEN.matcher(name.toLowerCase(Locale.ROOT));
+            while (matcher.find()) {
+                if (matcher.group().length() >= MIN_TOKEN_LENGTH && matcher.group().length() <= MAX_TOKEN_LENGTH) {
+                    tokens.add(matcher.group());
+                }
+            }
+            productTokens.put(productId, tokens);
+            for (String token : tokens) {
+                if (tokenCounts.merge(token, 1, Integer::sum) == 1) {
+                    for (String delete : deletesOf(token, maxEditDistance)) {
+                        deletes.computeIfAbsent(delete, k -> ConcurrentHashMap.newKeySet()).add(token);
+                    }
+                }
+            }
+        }
+
+        private synchronized void removeProduct(Long productId) {
+            Set<String> tokens = productTokens.remove(productId);
+            if (tokens == null) {
+                return;
+            }
+            for (String token : tokens) {
+                Integer remaining = tokenCounts.computeIfPresent(token, (k, count) -> count > 1 ? count - 1 : null);
+                if (remaining == null) {
+                    for (String delete : deletesOf(token, maxEditDistance)) {
+                        Set<String> originals = deletes.get(delete);
+                        if (originals != null) {
+                            originals.remove(token);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Closest tokens within maxDistance; ties go to tokens that appear in more products
+        private List<String> lookup(String word, int maxDistance, int limit) {
+            Set<String> candidates = new HashSet<>();
+            for (String delete : deletesOf(word, maxDistance)) {
+                Set<String> originals = deletes.get(delete);
+                if (originals != null) {
+                    candidates.addAll(originals);
+                }
+            }
+
+            List<Suggestion> matches = new ArrayList<>();
+            for (String candidate : candidates) {
+                int distance = editDistance(word, candidate, maxDistance);
+                if (distance <= maxDistance) {
+                    matches.add(new Suggestion(candidate, distance, tokenCounts.getOrDefault(candidate, 0)));
+                }
+            }
+            matches.sort(Comparator.comparingInt(Suggestion::distance)
+                    .thenComparing(Comparator.comparingInt(Suggestion::count).reversed())
+                    .thenComparing(Suggestion::token));
+
+            List<String> suggestions = new ArrayList<>();
+            for (int i = 0; i < matches.size() && i < limit; i++) {
+                suggestions.add(matches.get(i).token());
+            }
+            return suggestions;
+        }
+
+        // The word itself plus every string reachable by deleting up to maxDistance characters
+        private static Set<String> deletesOf(String word, int maxDistance) {
+            Set<String> result = new HashSet<>();
+            result.add(word);
+            List<String> frontier = List.of(word);
+            for (int d = 0; d < maxDistance; d++) {
+                List<String> next = new ArrayList<>();
+                for (String current : frontier) {
+                    for (int i = 0; i < current.length(); i++) {
+                        String delete = current.substring(0, i) + current.substring(i + 1);
+                        if (result.add(delete)) {
+                            next.add(delete);
+                        }
+                    }
+                }
+                frontier = next;
+            }
+            return result;
+        }
+
+        // Optimal string alignment distance (Levenshtein plus adjacent transpositions), capped at max + 1
+        private static int editDistance(String a, String b, int max) {
+            if (Math.abs(a.length() - b.length()) > max) {
+                return max + 1;
+            }
+            int[][] d = new int[a.length() + 1][b.length() + 1];
+            for (int i = 0; i <= a.length(); i++) {
+                d[i][0] = i;
+            }
+            for (int j = 0; j <= b.length(); j++) {
+                d[0][j] = j;
+            }
+            for (int i = 1; i <= a.length(); i++) {
+                int rowMin = Integer.MAX_VALUE;
+                for (int j = 1; j <= b.length(); j++) {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                    if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                        d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                    }
+                    rowMin = Math.min(rowMin, d[i][j]);
+                }
+                if (rowMin > max) {
+                    return max + 1;
+                }
+            }
+            return d[a.length()][b.length()];
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryChangeDto;
+import com.example.shopit.dto.InventoryChangePageDto;
+import com.example.shopit.event.InventoryFeedEvent;
+import com.example.shopit.repository.InventoryChangeRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// The inventory change feed over the outbox. Rows get their feed position (seq) only once committed, from
+// one sequencer at a time across nodes, so a reader that has seen seq n can never later find a smaller
+// one appear. Every node then publishes newly sequenced rows to its in-process listeners
+@Component
+public class InventoryChangeFeed {
+
+    // pg_try_advisory_xact_lock key held by whichever node is sequencing
+    private static final long SEQUENCER_LOCK_KEY = 7_201_022L;
+
+    private static final String SELECT_UNSEQUENCED_SQL = """
+        SELECT id FROM inventory_changes WHERE seq IS NULL ORDER BY id LIMIT ?
+        """;
+    private static final String ASSIGN_SEQ_SQL = "UPDATE inventory_changes SET seq = ? WHERE id = ?";
+    private static final String DELETE_EXPIRED_SQL = """
+        DELETE FROM inventory_changes WHERE seq IS NOT NULL AND created_at < ?
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryChangeRepository inventoryChangeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${shopit.inventory.changes.batch-size:500}")
+    private int batchSize;
+
+    @Value("${shopit.inventory.changes.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${shopit.inventory.changes.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${shopit.inventory.changes.retention-hours:168}")
+    private long retentionHours;
+
+    private TransactionTemplate transactionTemplate;
+    // Last seq handed to listeners on this node; starts at the head of the feed, so only new changes go out
+    private volatile Long dispatchedSeq;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${shopit.inventory.changes.dispatch-interval-ms:500}",
+            initialDelayString = "${shopit.inventory.changes.dispatch-interval-ms:500}")
+    public void dispatch() {
+        try {
+            int numbered;
+            do {
+                numbered = sequence();
+            } while (numbered == batchSize);
+            if (dispatchedSeq == null) {
+                dispatchedSeq = inventoryChangeRepository.findMaxSeq();
+                return;
+            }
+            publishSequenced();
+        } catch (DataAccessException e) {
+            System.err.println("ERROR dispatching inventory changes: " + e.getMessage());
+        }
+    }
+
+    // Numbers up to one batch of committed rows in id order; 0 when another node holds the sequencer lock
+    private int sequence() {
+        Integer numbered = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                    SEQUENCER_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return 0;
+            }
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_UNSEQUENCED_SQL, Long.class, batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            long next = inventoryChangeRepository.findMaxSeq();
+            List<Object[]> assignments = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                assignments.add(new Object[] {++next, id});
+            }
+            jdbcTemplate.batchUpdate(ASSIGN_SEQ_SQL, assignments);
+            return ids.size();
+        });
+        return numbered == null ? 0 : numbered;
+    }
+
+    private void publishSequenced() {
+        while (true) {
+            List<InventoryChangeDto> changes = inventoryChangeRepository.findFeedAfter(dispatchedSeq,
+                    PageRequest.of(0, batchSize));
+            if (changes.isEmpty()) {
+                return;
+            }
+            // A failing listener doesn't hold the feed back for the others
+            try {
+                eventPublisher.publishEvent(new InventoryFeedEvent(changes));
+            } catch (RuntimeException e) {
+                System.err.println("ERROR in inventory change listener: " + e.getMessage());
+            }
+            dispatchedSeq = changes.get(changes.size() - 1).getSeq();
+            if (changes.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // Clients that fall further behind than this start again from a full listing
+    @Scheduled(fixedDelayString = "${shopit.inventory.changes.cleanup-interval-ms:3600000}",
+            initialDelayString = "${shopit.inventory.changes.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+        } catch (DataAccessException e) {
+            System.err.println("ERROR deleting expired inventory changes: " + e.getMessage());
+        }
+    }
+
+    // One page of the feed after the since cursor (start of the feed when absent), optionally for one store
+    public InventoryChangePageDto getChanges(String since, Long storeId, Integer limit) {
+        long after;
+        try {
+            after = since == null || since.isBlank() ? 0L : Long.parseLong(since.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (after < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        PageRequest page = PageRequest.of(0, pageSize);
+
+        List<InventoryChangeDto> changes = storeId == null
+                ? inventoryChangeRepository.findFeedAfter(after, page)
+                : inventoryChangeRepository.findStoreFeedAfter(storeId, after, page);
+        long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSeq();
+        return new InventoryChangePageDto(changes, Long.toString(next));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.shopit.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Appends change rows inside the caller's transaction, so a change and its outbox row commit or roll back together
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class InventoryChangeOutbox {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO inventory_changes (store_id, product_id, quantity, price, deleted, created_at)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+    // Copies the row as this transaction sees it, for writers that don't know the resulting price
+    private static final String INSERT_CURRENT_SQL = """
+        INSERT INTO inventory_changes (store_id, product_id, quantity, price, deleted, created_at)
+        SELECT store_id, product_id, quantity, price, false, ?
+        FROM inventory
+        WHERE store_id = ? AND product_id = ?
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Call after the change is written (flushed), so rows for one item are appended in lock order
+    public void append(Long storeId, Long productId, Integer quantity, BigDecimal price, boolean deleted) {
+        jdbcTemplate.update(INSERT_SQL, ps -> {
+            ps.setLong(1, storeId);
+            ps.setLong(2, productId);
+            ps.setObject(3, quantity, Types.INTEGER);
+            ps.setObject(4, price, Types.NUMERIC);
+            ps.setBoolean(5, deleted);
+            ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+        });
+    }
+
+    public void appendCurrent(Long storeId, Collection<Long> productIds, int batchSize) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_CURRENT_SQL, productIds, batchSize, (ps, productId) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, storeId);
+            ps.setLong(3, productId);
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset position for inventory listings: (category, name, productId) of the last item on a page
+public class InventoryCursor {
+
+    // PostgreSQL text can't contain NUL, so it can't clash with a category or name
+    private static final String SEPARATOR = "\u0000";
+
+    private final String category;
+    private final String name;
+    private final long productId;
+
+    public InventoryCursor(String category, String name, long productId) {
+        this.category = category;
+        this.name = name;
+        this.productId = productId;
+    }
+
+    // Null categories sort as '' in the listing query
+    public static InventoryCursor after(InventoryDto item) {
+        return new InventoryCursor(item.getCategory() == null ? "" : item.getCategory(), item.getName(), item.getId());
+    }
+
+    public static InventoryCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new InventoryCursor(parts[0], parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = category + SEPARATOR + name + SEPARATOR + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+}
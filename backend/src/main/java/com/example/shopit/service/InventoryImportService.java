@@ -0,0 +1,510 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryImportStatusDto;
+import com.example.shopit.dto.InventoryUpdateDto;
+import com.example.shopit.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stock file imports: the upload is copied to a temp file, then a background job reads it a line at a time
+// and writes each batch in its own transaction, so memory use doesn't grow with the file
+@Service
+public class InventoryImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    // Marks a barcode shared by several products
+    private static final long AMBIGUOUS = -1L;
+
+    @Autowired
+    private StoreAccessControl storeAccessControl;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StoreManagementService storeManagementService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${shopit.inventory.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${shopit.inventory.import.threads:2}")
+    private int threads;
+
+    // Imports waiting for a thread; beyond this new uploads are refused
+    @Value("${shopit.inventory.import.queue-capacity:10}")
+    private int queueCapacity;
+
+    // Rejected rows listed in the job status; the count covers all of them
+    @Value("${shopit.inventory.import.max-rejections:100}")
+    private int maxRejections;
+
+    @Value("${shopit.inventory.import.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "inventory-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Running imports stop between batches; committed batches stay written
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        for (Job job : jobs.values()) {
+            if ("queued".equals(job.state)) {
+                finish(job, "failed", "Server shut down before the import started");
+                try {
+                    Files.deleteIfExists(job.file);
+                } catch (IOException e) {
+                    System.err.println("ERROR deleting inventory import file " + job.file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public InventoryImportStatusDto startImport(Long storeId, String email, String format, String contentType,
+                                                InputStream body) throws IOException {
+        String resolvedFormat = resolveFormat(format, contentType);
+
+        // Verify ownership
+        if (!storeAccessControl.hasAccess(email, storeId)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        pruneFinishedJobs();
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new IllegalStateException("Too many imports in progress, try again later");
+        }
+
+        Path file = Files.createTempFile("inventory-import-", "." + resolvedFormat);
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), storeId, resolvedFormat, file);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(file);
+            throw new IllegalStateException("Too many imports in progress, try again later");
+        }
+        return job.toDto();
+    }
+
+    public Optional<InventoryImportStatusDto> getImportStatus(Long storeId, String email, String jobId) {
+        // Verify ownership
+        if (!storeAccessControl.hasAccess(email, storeId)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        pruneFinishedJobs();
+        Job job = jobs.get(jobId);
+        if (job == null || !job.storeId.equals(storeId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toDto());
+    }
+
+    // An explicit format wins; otherwise the Content-Type decides
+    private static String resolveFormat(String format, String contentType) {
+        String value = format != null ? format : contentType;
+        if (value != null) {
+            String lower = value.toLowerCase(Locale.ROOT);
+            if (lower.equals(FORMAT_CSV) || lower.startsWith("text/csv")) {
+                return FORMAT_CSV;
+            }
+            if (lower.equals(FORMAT_NDJSON) || lower.startsWith("application/x-ndjson")
+                    || lower.startsWith("application/jsonl")) {
+                return FORMAT_NDJSON;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format, use text/csv or application/x-ndjson");
+    }
+
+    private void run(Job job) {
+        job.startedNanos = System.nanoTime();
+        job.startedAt = LocalDateTime.now();
+        job.state = "running";
+        try (BufferedReader reader = Files.newBufferedReader(job.file, StandardCharsets.UTF_8)) {
+            RowReader rows = FORMAT_CSV.equals(job.format) ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    writeBatch(job, batch);
+                    batch.clear();
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+            writeBatch(job, batch);
+            finish(job, "completed", null);
+        } catch (InterruptedException e) {
+            finish(job, "failed", "Stopped by server shutdown");
+        } catch (Exception e) {
+            System.err.println("ERROR in inventory import " + job.id + ": " + e.getMessage());
+            finish(job, "failed", e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(job.file);
+            } catch (IOException e) {
+                System.err.println("ERROR deleting inventory import file " + job.file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Resolves products for the whole batch with two queries, then upserts the valid rows in one transaction
+    private void writeBatch(Job job, List<ImportRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<Long> ids = new HashSet<>();
+        Set<String> barcodes = new HashSet<>();
+        for (ImportRow row : batch) {
+            if (row.error() != null) {
+                continue;
+            }
+            if (row.update().getProductId() != null) {
+                ids.add(row.update().getProductId());
+            } else if (row.barcode() != null) {
+                barcodes.add(row.barcode());
+            }
+        }
+        Set<Long> existing = ids.isEmpty() ? Set.of() : new HashSet<>(productRepository.findExistingIds(ids));
+        Map<String, Long> byBarcode = new HashMap<>();
+        if (!barcodes.isEmpty()) {
+            for (Object[] match : productRepository.findIdsByBarcodes(barcodes)) {
+                byBarcode.merge((String) match[0], (Long) match[1], (a, b) -> AMBIGUOUS);
+            }
+        }
+
+        // One statement per product; when a product repeats, its last row wins
+        Map<Long, InventoryUpdateDto> writes = new LinkedHashMap<>();
+        long accepted = 0;
+        for (ImportRow row : batch) {
+            String error = row.error();
+            InventoryUpdateDto update = row.update();
+            if (error == null) {
+                if (update.getProductId() != null) {
+                    error = existing.contains(update.getProductId()) ? null : "Product not found";
+                } else if (row.barcode() == null) {
+                    error = "Product ID or barcode is required";
+                } else {
+                    Long productId = byBarcode.get(row.barcode());
+                    if (productId == null) {
+                        error = "No product with barcode " + row.barcode();
+                    } else if (productId == AMBIGUOUS) {
+                        error = "Several products have barcode " + row.barcode() + ", use the product ID";
+                    } else {
+                        update.setProductId(productId);
+                    }
+                }
+            }
+            if (error == null) {
+                error = StoreManagementService.validateInventoryRow(update);
+            }
+
+            if (error != null) {
+                job.reject(row.line(), error, maxRejections);
+            } else {
+                writes.put(update.getProductId(), update);
+                accepted++;
+            }
+        }
+
+        storeManagementService.upsertInventoryRows(job.storeId, new ArrayList<>(writes.values()));
+        job.upserted.addAndGet(accepted);
+        job.processed.addAndGet(batch.size());
+    }
+
+    private void finish(Job job, String state, String error) {
+        job.error = error;
+        job.finishedNanos = System.nanoTime();
+        job.finishedAt = LocalDateTime.now();
+        job.state = state;
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    // A parsed line; error is set when the line itself couldn't be read into a row
+    private record ImportRow(long line, InventoryUpdateDto update, String barcode, String error) {
+    }
+
+    private interface RowReader {
+        // Null at end of file
+        ImportRow next() throws IOException;
+    }
+
+    // Header row names the columns, in any order: productId and/or barcode, quantity, price,
+    // manufacturingDate, expiryDate (case, spaces and underscores ignored)
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long line;
+
+        private CsvRowReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            String header = nextLine();
+            if (header == null) {
+                throw new IllegalArgumentException("Import file is empty");
+            }
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            List<String> names = splitCsvLine(header);
+            if (names == null) {
+                throw new IllegalArgumentException("Unterminated quoted field in CSV header");
+            }
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).replaceAll("[\\s_]", "").toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("quantity") || !(columns.containsKey("productid") || columns.containsKey("barcode"))) {
+                throw new IllegalArgumentException("CSV header needs a quantity column and a productId or barcode column");
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text = nextLine();
+            if (text == null) {
+                return null;
+            }
+            InventoryUpdateDto update = new InventoryUpdateDto();
+            List<String> fields = splitCsvLine(text);
+            if (fields == null) {
+                return new ImportRow(line, update, null, "Unterminated quoted field");
+            }
+            String column = null;
+            try {
+                column = "productId";
+                String productId = field(fields, "productid");
+                update.setProductId(productId == null ? null : Long.valueOf(productId));
+                column = "quantity";
+                String quantity = field(fields, "quantity");
+                update.setQuantity(quantity == null ? null : Integer.valueOf(quantity));
+                column = "price";
+                String price = field(fields, "price");
+                update.setPrice(price == null ? null : new BigDecimal(price));
+                column = "manufacturingDate";
+                String manufacturingDate = field(fields, "manufacturingdate");
+                update.setManufacturingDate(manufacturingDate == null ? null : LocalDate.parse(manufacturingDate));
+                column = "expiryDate";
+                String expiryDate = field(fields, "expirydate");
+                update.setExpiryDate(expiryDate == null ? null : LocalDate.parse(expiryDate));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                return new ImportRow(line, update, null, "Invalid " + column);
+            }
+            return new ImportRow(line, update, field(fields, "barcode"), null);
+        }
+
+        // Skips blank lines
+        private String nextLine() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            return text;
+        }
+
+        // Trimmed value, null when the column is absent or empty
+        private String field(List<String> fields, String name) {
+            Integer index = columns.get(name);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        // RFC 4180 quoting within one line; null when a quote is left open
+        private static List<String> splitCsvLine(String text) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    // One JSON object per line with the InventoryUpdateDto fields, plus an optional barcode
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long line;
+
+        private NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                NdjsonRow row = objectMapper.readValue(text, NdjsonRow.class);
+                String barcode = row.getBarcode() == null || row.getBarcode().isBlank() ? null : row.getBarcode().trim();
+                return new ImportRow(line, row, barcode, null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(line, new InventoryUpdateDto(), null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    static class NdjsonRow extends InventoryUpdateDto {
+        private String barcode;
+
+        public String getBarcode() {
+            return barcode;
+        }
+
+        public void setBarcode(String barcode) {
+            this.barcode = barcode;
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Long storeId;
+        private final String format;
+        private final Path file;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong upserted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<String> rejections = new ArrayList<>();
+        private volatile String state = "queued";
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long startedNanos;
+        private volatile long finishedNanos;
+
+        private Job(String id, Long storeId, String format, Path file) {
+            this.id = id;
+            this.storeId = storeId;
+            this.format = format;
+            this.file = file;
+        }
+
+        private void reject(long line, String error, int maxRejections) {
+            rejected.incrementAndGet();
+            synchronized (rejections) {
+                if (rejections.size() < maxRejections) {
+                    rejections.add("line " + line + ": " + error);
+                }
+            }
+        }
+
+        private InventoryImportStatusDto toDto() {
+            InventoryImportStatusDto dto = new InventoryImportStatusDto();
+            dto.setJobId(id);
+            dto.setStoreId(storeId);
+            dto.setFormat(format);
+            dto.setState(state);
+            dto.setProcessed(processed.get());
+            dto.setUpserted(upserted.get());
+            dto.setRejected(rejected.get());
+            dto.setCreatedAt(createdAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setError(error);
+            synchronized (rejections) {
+                dto.setRejections(new ArrayList<>(rejections));
+            }
+            if (startedAt != null) {
+                long end = finishedAt != null ? finishedNanos : System.nanoTime();
+                double seconds = (end - startedNanos) / 1_000_000_000.0;
+                dto.setRowsPerSecond(seconds > 0 ? dto.getProcessed() / seconds : 0.0);
+            }
+            return dto;
+        }
+    }
+}
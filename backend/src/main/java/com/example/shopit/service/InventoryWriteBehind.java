@@ -0,0 +1,338 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryDto;
+import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.entity.Inventory;
+import com.example.shopit.event.StoreChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+// Opt-in write-behind for absolute quantity/price updates: only the latest value per item is kept in memory
+// and all pending items are written in one batched transaction per interval. Reads overlay pending values
+@Component
+public class InventoryWriteBehind {
+
+    private static final String FLUSH_SQL = """
+        UPDATE inventory
+        SET quantity = ?, price = COALESCE(?, price), last_updated = ?
+        WHERE store_id = ? AND product_id = ?
+        """;
+
+    private record Key(Long storeId, Long productId) {
+    }
+
+    // Compared by identity: a flush removes an entry only if no newer update has replaced it
+    public static final class Pending {
+        private final int quantity;
+        private final BigDecimal price;
+        private final LocalDateTime updatedAt;
+
+        private Pending(int quantity, BigDecimal price, LocalDateTime updatedAt) {
+            this.quantity = quantity;
+            this.price = price;
+            this.updatedAt = updatedAt;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        // Null when no update set a price; the stored price stands
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StoreDetailsCache storeDetailsCache;
+
+    @Autowired
+    private InventoryChangeOutbox inventoryChangeOutbox;
+
+    @Value("${shopit.inventory.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shopit.inventory.write-behind.stripes:64}")
+    private int stripes;
+
+    // Reaching this many pending items flushes on the updating thread instead of waiting for the interval
+    @Value("${shopit.inventory.write-behind.max-pending:100000}")
+    private int maxPending;
+
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    // Bumped on every buffered update; part of the store details ETag while values are pending
+    private final Map<Long, AtomicLong> storeRevisions = new ConcurrentHashMap<>();
+    // One flush at a time, so a forced flush never overtakes a scheduled one still writing older values
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Object[] locks;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        locks = new Object[Math.max(1, stripes)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Buffers the update only once the caller's transaction commits, so a rollback leaves nothing behind to
+    // overlay or flush; without a transaction it is buffered straight away
+    public void updateAfterCommit(Long storeId, Long productId, int quantity, BigDecimal price) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(storeId, productId, quantity, price);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(storeId, productId, quantity, price);
+            }
+        });
+    }
+
+    // Caller has checked the item exists; a null price keeps whatever price is pending or stored
+    public Pending update(Long storeId, Long productId, int quantity, BigDecimal price) {
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+        Key key = new Key(storeId, productId);
+        Pending next;
+        synchronized (lockFor(key)) {
+            Pending previous = pending.get(key);
+            BigDecimal nextPrice = price != null || previous == null ? price : previous.getPrice();
+            next = new Pending(quantity, nextPrice, LocalDateTime.now());
+            pending.put(key, next);
+        }
+        storeRevisions.computeIfAbsent(storeId, id -> new AtomicLong()).incrementAndGet();
+        storeDetailsCache.invalidate(storeId);
+        return next;
+    }
+
+    public Pending get(Long storeId, Long productId) {
+        if (pending.isEmpty() || storeId == null || productId == null) {
+            return null;
+        }
+        return pending.get(new Key(storeId, productId));
+    }
+
+    public long getStoreRevision(Long storeId) {
+        AtomicLong revision = storeRevisions.get(storeId);
+        return revision == null ? 0 : revision.get();
+    }
+
+    // Applies the pending value to a search row; false when it's now out of stock and should be left out
+    public boolean overlay(SearchResultDto row) {
+        Pending value = get(row.getId(), row.getProductId());
+        if (value == null) {
+            return true;
+        }
+        row.setQuantity(value.getQuantity());
+        if (value.getPrice() != null) {
+            row.setPrice(value.getPrice());
+        }
+        return value.getQuantity() > 0;
+    }
+
+    // Search rows only hold in-stock items; an item whose stored quantity is 0 appears once its new value is flushed
+    public List<SearchResultDto> overlay(List<SearchResultDto> rows) {
+        if (pending.isEmpty()) {
+            return rows;
+        }
+        List<SearchResultDto> visible = new ArrayList<>(rows.size());
+        for (SearchResultDto row : rows) {
+            if (overlay(row)) {
+                visible.add(row);
+            }
+        }
+        return visible;
+    }
+
+    // Entities are replaced by detached copies, so a managed row is never dirtied with buffered values
+    public List<Inventory> overlayInventory(Long storeId, List<Inventory> items) {
+        if (pending.isEmpty()) {
+            return items;
+        }
+        List<Inventory> overlaid = new ArrayList<>(items.size());
+        for (Inventory item : items) {
+            Pending value = get(storeId, item.getProduct().getId());
+            if (value == null) {
+                overlaid.add(item);
+                continue;
+            }
+            Inventory copy = new Inventory(item.getStore(), item.getProduct(), value.getQuantity(),
+                    value.getPrice() != null ? value.getPrice() : item.getPrice());
+            copy.setId(item.getId());
+            copy.setLastUpdated(value.getUpdatedAt());
+            overlaid.add(copy);
+        }
+        return overlaid;
+    }
+
+    public List<InventoryDto> overlay(Long storeId, List<InventoryDto> items, boolean inStockOnly) {
+        if (pending.isEmpty()) {
+            return items;
+        }
+        List<InventoryDto> visible = new ArrayList<>(items.size());
+        for (InventoryDto item : items) {
+            Pending value = get(storeId, item.getId());
+            if (value != null) {
+                item.setQuantity(value.getQuantity());
+                if (value.getPrice() != null) {
+                    item.setPrice(value.getPrice());
+                }
+            }
+            if (!inStockOnly || item.getQuantity() > 0) {
+                visible.add(item);
+            }
+        }
+        return visible;
+    }
+
+    // Other writers (deltas, bulk upserts) call these first, so a buffered value can't land on top of theirs
+    public void flush(Long storeId, Long productId) {
+        flushMatching(key -> key.storeId().equals(storeId) && key.productId().equals(productId), true, true);
+    }
+
+    public void flushStore(Long storeId) {
+        flushMatching(key -> key.storeId().equals(storeId), true, true);
+    }
+
+    // The item is being deleted, so its buffered value must not be written afterwards
+    public void discard(Long storeId, Long productId) {
+        Key key = new Key(storeId, productId);
+        flushLock.lock();
+        try {
+            synchronized (lockFor(key)) {
+                pending.remove(key);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shopit.inventory.write-behind.flush-interval-ms:1000}",
+            initialDelayString = "${shopit.inventory.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        flushMatching(key -> true, true, false);
+    }
+
+    // Listeners may already be gone during shutdown, and the caches go with the process anyway
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushMatching(key -> true, false, false);
+    }
+
+    // A forced flush (ahead of another write) fails that write rather than let it be overwritten later
+    private void flushMatching(Predicate<Key> filter, boolean publish, boolean forced) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Map.Entry<Key, Pending>> batch = new ArrayList<>();
+            for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+                if (filter.test(entry.getKey())) {
+                    batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Set<Long> stores = new LinkedHashSet<>();
+            // Stamped with the flush time, not the buffering time: delta sync reads last_updated and must see
+            // the row as changed after it becomes visible, however late a retried flush lands
+            Timestamp flushedAt = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch, batch.size(), (ps, entry) -> {
+                    Pending value = entry.getValue();
+                    ps.setInt(1, value.getQuantity());
+                    ps.setObject(2, value.getPrice(), Types.NUMERIC);
+                    ps.setTimestamp(3, flushedAt);
+                    ps.setLong(4, entry.getKey().storeId());
+                    ps.setLong(5, entry.getKey().productId());
+                });
+                Map<Long, List<Long>> productsByStore = new LinkedHashMap<>();
+                for (Map.Entry<Key, Pending> entry : batch) {
+                    stores.add(entry.getKey().storeId());
+                    productsByStore.computeIfAbsent(entry.getKey().storeId(), id -> new ArrayList<>())
+                            .add(entry.getKey().productId());
+                }
+                // Same transaction as the writes, like every other inventory change
+                productsByStore.forEach((storeId, productIds) ->
+                        inventoryChangeOutbox.appendCurrent(storeId, productIds, batch.size()));
+                // One invalidation per store, delivered after commit
+                if (publish) {
+                    for (Long storeId : stores) {
+                        eventPublisher.publishEvent(new StoreChangedEvent(storeId));
+                    }
+                }
+            });
+
+            // Written values are now readable from the database; newer updates stay pending
+            for (Map.Entry<Key, Pending> entry : batch) {
+                synchronized (lockFor(entry.getKey())) {
+                    pending.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (DataAccessException e) {
+            if (forced) {
+                throw e;
+            }
+            // Entries stay pending and are retried on the next flush
+            System.err.println("ERROR flushing buffered inventory updates: " + e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Object lockFor(Key key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.ProductPageDto;
+import com.example.shopit.dto.ProductSummaryDto;
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.repository.ProductCatalogCriteria;
+import com.example.shopit.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Product catalog for the "add item" picker: slim keyset pages, cached per filter and position
+@Service
+public class ProductCatalogService {
+
+    // Filters are normalized, so "Milk" and " milk" share an entry
+    private record Key(String query, String category, String barcode, String cursor, int pageSize) {
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${shopit.product-catalog.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${shopit.product-catalog.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${shopit.product-catalog.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${shopit.product-catalog.cache.max-entries:5000}")
+    private long maxEntries;
+
+    // Safety net for product changes made outside this application instance
+    @Value("${shopit.product-catalog.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final AtomicLong generation = new AtomicLong();
+    private Cache<Key, ProductPageDto> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public ProductPageDto getPage(String query, String category, String barcode, Integer size, String cursor) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        Key key = new Key(normalize(query), normalize(category), barcode == null || barcode.isBlank() ? null : barcode.trim(),
+                cursor == null || cursor.isBlank() ? null : cursor.trim(), pageSize);
+
+        ProductPageDto page = cacheEnabled ? cache.getIfPresent(key) : null;
+        if (page == null) {
+            // A product change committed while loading may not be in the page, so it isn't cached then
+            long seenGeneration = generation.get();
+            page = load(key);
+            if (cacheEnabled && generation.get() == seenGeneration) {
+                cache.put(key, page);
+            }
+        }
+        return page;
+    }
+
+    private ProductPageDto load(Key key) {
+        ProductCatalogCriteria criteria = new ProductCatalogCriteria();
+        criteria.setQuery(key.query());
+        criteria.setCategory(key.category());
+        criteria.setBarcode(key.barcode());
+        if (key.cursor() != null) {
+            ProductCursor after = ProductCursor.decode(key.cursor());
+            criteria.setAfter(after.getName(), after.getProductId());
+        }
+        // One extra row tells whether another page exists
+        criteria.setLimit(key.pageSize() + 1);
+
+        List<ProductSummaryDto> products = productRepository.findCatalogPage(criteria);
+        if (products.size() <= key.pageSize()) {
+            return new ProductPageDto(List.copyOf(products), null);
+        }
+        List<ProductSummaryDto> page = new ArrayList<>(products.subList(0, key.pageSize()));
+        return new ProductPageDto(List.copyOf(page), ProductCursor.after(page.get(key.pageSize() - 1)).encode());
+    }
+
+    // Any product change can move rows between pages, so every cached page goes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
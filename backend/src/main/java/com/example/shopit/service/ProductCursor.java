@@ -0,0 +1,50 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.ProductSummaryDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset position for the product catalog: (name, productId) of the last product on a page
+public class ProductCursor {
+
+    // PostgreSQL text can't contain NUL, so it can't clash with a name
+    private static final String SEPARATOR = "\u0000";
+
+    private final String name;
+    private final long productId;
+
+    public ProductCursor(String name, long productId) {
+        this.name = name;
+        this.productId = productId;
+    }
+
+    public static ProductCursor after(ProductSummaryDto product) {
+        return new ProductCursor(product.getName(), product.getId());
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProductCursor(parts[0], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = name + SEPARATOR + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+}
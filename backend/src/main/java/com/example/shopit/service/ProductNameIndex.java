@@ -0,0 +1,226 @@
+package com.example.shopit.service;
+
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Trigram inverted index over product names, answering "name contains query" without scanning products
+@Component
+public class ProductNameIndex {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${shopit.search.product-index.catch-up-ms:1000}")
+    private long catchUpMs;
+
+    private volatile Postings postings;
+    // Product changes seen while a rebuild reads the table, replayed onto the fresh postings before the swap
+    // (a null entry means removed)
+    private Map<Long, String[]> changedDuringRebuild;
+    private final Object rebuildLock = new Object();
+    private final AtomicLong lastCatchUp = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Picks up renames and deletions done outside the application; new rows are caught up between rebuilds
+    @Scheduled(fixedDelayString = "${shopit.search.product-index.refresh-ms:300000}",
+            initialDelayString = "${shopit.search.product-index.refresh-ms:300000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            Postings fresh = new Postings();
+            try {
+                for (Object[] row : productRepository.findAllNamesAndCategories()) {
+                    fresh.put((Long) row[0], (String) row[1], (String) row[2]);
+                    fresh.advanceHighWater((Long) row[0]);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                changedDuringRebuild.forEach((productId, product) -> {
+                    if (product == null) {
+                        fresh.remove(productId);
+                    } else {
+                        fresh.put(productId, product[0], product[1]);
+                    }
+                });
+                changedDuringRebuild = null;
+                postings = fresh;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            put(event.getProductId(), event.getName(), event.getCategory());
+        }
+    }
+
+    public synchronized void put(Long productId, String name, String category) {
+        if (productId == null || name == null) {
+            return;
+        }
+        if (postings != null) {
+            postings.put(productId, name, category);
+        }
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(productId, new String[] {name, category});
+        }
+    }
+
+    public synchronized void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        if (postings != null) {
+            postings.remove(productId);
+        }
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(productId, null);
+        }
+    }
+
+    // Products inserted by SQL raise no event; fetch the ones above the snapshot's highest id at most once
+    // per catch-up-ms, so they're searchable well before the next rebuild. Event-driven puts don't move the
+    // high-water mark, so a lower id committed by SQL after an application insert is still fetched
+    private void catchUp(Postings current) {
+        long now = System.currentTimeMillis();
+        long last = lastCatchUp.get();
+        if (now - last < catchUpMs || !lastCatchUp.compareAndSet(last, now)) {
+            return;
+        }
+        long highWater = current.highWater;
+        for (Object[] row : productRepository.findNamesAndCategoriesAfter(highWater)) {
+            put((Long) row[0], (String) row[1], (String) row[2]);
+            highWater = Math.max(highWater, (Long) row[0]);
+        }
+        current.advanceHighWater(highWater);
+    }
+
+    public boolean isLoaded() {
+        return postings != null;
+    }
+
+    // Whether the product's category equals the given one, ignoring case (the search SQL's category filter)
+    public boolean isInCategory(Long productId, String category) {
+        Postings current = postings;
+        String productCategory = current == null ? null : current.categories.get(productId);
+        return productCategory != null && productCategory.equals(category.toLowerCase(Locale.ROOT));
+    }
+
+    // LIKE treats these as wildcards/escapes; such queries stay on the database to preserve semantics
+    public static boolean hasLikeWildcards(String query) {
+        return query.indexOf('%') >= 0 || query.indexOf('_') >= 0 || query.indexOf('\\') >= 0;
+    }
+
+    // Returns null when the query can't be answered here and the SQL LIKE has to run instead
+    public List<Long> findProductIds(String query) {
+        Postings current = postings;
+        if (current == null || query == null) {
+            return null;
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+        if (hasLikeWildcards(needle)) {
+            return null;
+        }
+        catchUp(current);
+        return current.find(needle);
+    }
+
+    private static final class Postings {
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+        private final Map<Long, String> categories = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> trigrams = new ConcurrentHashMap<>();
+        // Highest product id read from the table (by the rebuild or a catch-up)
+        private volatile long highWater;
+
+        private synchronized void advanceHighWater(Long productId) {
+            if (productId != null && productId > highWater) {
+                highWater = productId;
+            }
+        }
+
+        private void put(Long productId, String name, String category) {
+            if (productId == null || name == null) {
+                return;
+            }
+            remove(productId);
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            names.put(productId, lowerName);
+            if (category != null) {
+                categories.put(productId, category.toLowerCase(Locale.ROOT));
+            }
+            for (int i = 0; i + 3 <= lowerName.length(); i++) {
+                trigrams.computeIfAbsent(lowerName.substring(i, i + 3), k -> ConcurrentHashMap.newKeySet()).add(productId);
+            }
+        }
+
+        private void remove(Long productId) {
+            categories.remove(productId);
+            String previous = names.remove(productId);
+            if (previous == null) {
+                return;
+            }
+            for (int i = 0; i + 3 <= previous.length(); i++) {
+                Set<Long> posting = trigrams.get(previous.substring(i, i + 3));
+                if (posting != null) {
+                    posting.remove(productId);
+                }
+            }
+        }
+
+        private List<Long> find(String needle) {
+            Collection<Long> candidates = names.keySet();
+            if (needle.length() >= 3) {
+                // Shortest posting list of the query's trigrams; every match has to be in it
+                for (int i = 0; i + 3 <= needle.length(); i++) {
+                    Set<Long> posting = trigrams.get(needle.substring(i, i + 3));
+                    if (posting == null || posting.isEmpty()) {
+                        return List.of();
+                    }
+                    if (posting.size() < candidates.size()) {
+                        candidates = posting;
+                    }
+                }
+            }
+
+            List<Long> productIds = new ArrayList<>();
+            for (Long productId : candidates) {
+                String name = names.get(productId);
+                if (name != null && name.contains(needle)) {
+                    productIds.add(productId);
+                }
+            }
+            return productIds;
+        }
+    }
+}
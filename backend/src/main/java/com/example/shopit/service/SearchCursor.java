@@ -0,0 +1,78 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SearchResultDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+
+// Opaque keyset position for /api/search: (distance key, storeId, productId) of the last row on a page
+public class SearchCursor {
+
+    // Same order as the search SQL's ORDER BY; rows within the same metre fall back to ids
+    public static final Comparator<SearchResultDto> ORDER = Comparator
+            .comparingLong((SearchResultDto row) -> distanceKey(row.getDistanceKm()))
+            .thenComparing(SearchResultDto::getId)
+            .thenComparing(SearchResultDto::getProductId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final long distanceKey;
+    private final long storeId;
+    private final long productId;
+
+    public SearchCursor(long distanceKey, long storeId, long productId) {
+        this.distanceKey = distanceKey;
+        this.storeId = storeId;
+        this.productId = productId;
+    }
+
+    public static SearchCursor after(SearchResultDto row) {
+        return new SearchCursor(distanceKey(row.getDistanceKm()), row.getId(), row.getProductId());
+    }
+
+    // Whole metres, as floor(distance * 1000) in the search SQL. Java and the database can disagree on the
+    // last bit of a distance but practically never on which metre it falls in, so pages resume on the same
+    // key whichever path served them
+    public static long distanceKey(double distanceKm) {
+        return (long) Math.floor(distanceKm * 1000);
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = distanceKey + ":" + storeId + ":" + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isBefore(SearchResultDto row) {
+        int byDistance = Long.compare(distanceKey(row.getDistanceKm()), distanceKey);
+        if (byDistance != 0) {
+            return byDistance > 0;
+        }
+        if (row.getId() != storeId) {
+            return row.getId() > storeId;
+        }
+        return row.getProductId() != null && row.getProductId() > productId;
+    }
+
+    public long getDistanceKey() {
+        return distanceKey;
+    }
+
+    public long getStoreId() {
+        return storeId;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+}
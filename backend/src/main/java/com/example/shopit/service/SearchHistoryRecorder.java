@@ -0,0 +1,178 @@
+package com.example.shopit.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Records searches off the request path: requests enqueue, one background thread batch-inserts
+@Component
+public class SearchHistoryRecorder {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO search_history (user_id, search_term, latitude, longitude, created_at)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+    private static final int MAX_TERM_LENGTH = 255;
+
+    private record Entry(Long userId, String searchTerm, Double latitude, Double longitude, LocalDateTime createdAt) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${shopit.search-history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shopit.search-history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${shopit.search-history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${shopit.search-history.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${shopit.search-history.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private BlockingQueue<Entry> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "search-history-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // The flusher keeps going until the queue is empty, so nothing accepted before shutdown is lost
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(shutdownTimeoutMs);
+        }
+    }
+
+    // Never blocks the caller: when the queue is full the entry is dropped and counted
+    public void record(Long userId, String searchTerm, Double latitude, Double longitude) {
+        if (!enabled || searchTerm == null || searchTerm.isBlank()) {
+            return;
+        }
+        String term = searchTerm.trim();
+        if (term.length() > MAX_TERM_LENGTH) {
+            term = term.substring(0, MAX_TERM_LENGTH);
+        }
+        // A position the latitude/longitude columns can't hold would fail the whole batch it's written in;
+        // the search is still recorded, without its position
+        if (!isValidPosition(latitude, longitude)) {
+            latitude = null;
+            longitude = null;
+        }
+        if (queue.offer(new Entry(userId, term, latitude, longitude, LocalDateTime.now()))) {
+            recorded.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    static boolean isValidPosition(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90
+                && longitude >= -180 && longitude <= 180;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("recorded", recorded.get());
+        stats.put("dropped", dropped.get());
+        stats.put("written", written.get());
+        stats.put("failed", failed.get());
+        stats.put("queued", (long) queue.size());
+        stats.put("capacity", (long) queueCapacity);
+        return stats;
+    }
+
+    // A batch is written once it is full or flushIntervalMs after its first entry, whichever comes first
+    private void flushLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            write(batch);
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                if (entry.userId() == null) {
+                    ps.setNull(1, Types.BIGINT);
+                } else {
+                    ps.setLong(1, entry.userId());
+                }
+                ps.setString(2, entry.searchTerm());
+                ps.setObject(3, entry.latitude(), Types.DOUBLE);
+                ps.setObject(4, entry.longitude(), Types.DOUBLE);
+                ps.setTimestamp(5, Timestamp.valueOf(entry.createdAt()));
+            });
+            written.addAndGet(batch.size());
+        } catch (DataAccessException e) {
+            failed.addAndGet(batch.size());
+            System.err.println("ERROR writing search history batch of " + batch.size() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.dto.SearchScoreDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+// Scores search results on distance, stock, price and name match, keeping only the best k
+@Component
+public class SearchRanker {
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.6;
+    private static final double SUBSTRING_MATCH = 0.3;
+
+    // Lowest score first, so the heap head is the row to evict; equal scores fall back to distance order
+    private static final Comparator<SearchResultDto> WORST_FIRST = Comparator
+            .comparingDouble((SearchResultDto row) -> row.getScore().getTotal())
+            .thenComparing(SearchCursor.ORDER.reversed());
+
+    @Value("${shopit.search.ranking.weight.distance:0.4}")
+    private double distanceWeight;
+
+    @Value("${shopit.search.ranking.weight.quantity:0.2}")
+    private double quantityWeight;
+
+    @Value("${shopit.search.ranking.weight.price:0.2}")
+    private double priceWeight;
+
+    @Value("${shopit.search.ranking.weight.match:0.2}")
+    private double matchWeight;
+
+    // Stock at which the quantity component reaches 0.5
+    @Value("${shopit.search.ranking.quantity-half-score:10}")
+    private double quantityHalfScore;
+
+    // Best k rows, highest score first; O(n log k) instead of sorting all n
+    public List<SearchResultDto> topK(List<SearchResultDto> candidates, String query, double radius, int k) {
+        BigDecimal minPrice = null;
+        BigDecimal maxPrice = null;
+        for (SearchResultDto candidate : candidates) {
+            BigDecimal price = candidate.getPrice();
+            if (price != null) {
+                minPrice = minPrice == null || price.compareTo(minPrice) < 0 ? price : minPrice;
+                maxPrice = maxPrice == null || price.compareTo(maxPrice) > 0 ? price : maxPrice;
+            }
+        }
+
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        PriorityQueue<SearchResultDto> heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+        for (SearchResultDto candidate : candidates) {
+            candidate.setScore(score(candidate, needle, radius, minPrice, maxPrice));
+            heap.offer(candidate);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        List<SearchResultDto> ranked = new ArrayList<>(heap);
+        ranked.sort(WORST_FIRST.reversed());
+        return ranked;
+    }
+
+    private SearchScoreDto score(SearchResultDto row, String needle, double radius, BigDecimal minPrice, BigDecimal maxPrice) {
+        double distance = radius > 0 ? Math.max(0.0, 1.0 - row.getDistanceKm() / radius) : 1.0;
+
+        int stock = row.getQuantity() == null ? 0 : row.getQuantity();
+        double quantity = stock / (stock + quantityHalfScore);
+
+        // Cheapest in the result set scores 1, most expensive 0; rows without a price score 0
+        double price;
+        if (row.getPrice() == null) {
+            price = 0.0;
+        } else if (minPrice.compareTo(maxPrice) == 0) {
+            price = 1.0;
+        } else {
+            price = maxPrice.subtract(row.getPrice()).doubleValue() / maxPrice.subtract(minPrice).doubleValue();
+        }
+
+        String name = row.getProductName() == null ? "" : row.getProductName().toLowerCase(Locale.ROOT);
+        String matchType;
+        double match;
+        if (name.equals(needle)) {
+            matchType = "exact";
+            match = EXACT_MATCH;
+        } else if (name.startsWith(needle)) {
+            matchType = "prefix";
+            match = PREFIX_MATCH;
+        } else {
+            matchType = "substring";
+            match = SUBSTRING_MATCH;
+        }
+
+        double total = distanceWeight * distance + quantityWeight * quantity + priceWeight * price + matchWeight * match;
+        return new SearchScoreDto(total, distance, quantity, price, match, matchType);
+    }
+}
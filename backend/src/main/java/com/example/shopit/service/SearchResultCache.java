@@ -0,0 +1,219 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.event.InventoryChangedEvent;
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.event.StoreChangedEvent;
+import com.example.shopit.repository.NearbySearchCriteria;
+import com.example.shopit.util.GeoUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caches search candidates per (query, grid cell, radius bucket); exact distances are recomputed per request
+@Component
+public class SearchResultCache {
+
+    public interface Loader {
+        List<SearchResultDto> load(NearbySearchCriteria criteria);
+    }
+
+    private record Key(String query, String category, long row, long column, double radiusBucket) {
+    }
+
+    // Candidates cover every position in the cell for any radius up to the bucket. regions are the
+    // invalidation regions the cover circle touches, and stamp their combined version when loading began
+    private record Entry(List<SearchResultDto> candidates, long[] regions, long stamp) {
+    }
+
+    @Autowired
+    private StoreLocationIndex storeLocationIndex;
+
+    @Value("${shopit.search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shopit.search.cache.cell-degrees:0.01}")
+    private double cellDegrees;
+
+    @Value("${shopit.search.cache.radius-bucket-km:5}")
+    private double radiusBucketKm;
+
+    // The largest radius the search page offers; entries are bounded by total rows, not by count
+    @Value("${shopit.search.cache.max-radius-km:500}")
+    private double maxRadiusKm;
+
+    @Value("${shopit.search.cache.max-rows:200000}")
+    private long maxRows;
+
+    // Changes bump the version of the region holding the store; entries touching it are reloaded when next read
+    @Value("${shopit.search.cache.region-degrees:0.5}")
+    private double regionDegrees;
+
+    @Value("${shopit.search.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Versions only grow, so a sum over an entry's regions changes exactly when one of them has
+    private final Map<Long, AtomicLong> regionVersions = new ConcurrentHashMap<>();
+    // Bumped by changes that can touch any entry (products, stores with no known location)
+    private final AtomicLong generation = new AtomicLong();
+    private Cache<Key, Entry> cache;
+    private long regionColumns;
+
+    @PostConstruct
+    public void init() {
+        regionColumns = (long) Math.ceil(360.0 / regionDegrees);
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Key key, Entry entry) -> entry.candidates().size() + 1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public boolean isCacheable(Double radius) {
+        return enabled && radius != null && radius > 0 && radius <= maxRadiusKm;
+    }
+
+    public static String normalize(String query) {
+        return query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Applies the criteria's keyset position and limit to the cached candidates
+    public List<SearchResultDto> search(NearbySearchCriteria criteria, Loader loader) {
+        SearchCursor after = criteria.hasAfter()
+                ? new SearchCursor(criteria.getAfterDistanceKey(), criteria.getAfterStoreId(), criteria.getAfterProductId())
+                : null;
+
+        List<SearchResultDto> results = new ArrayList<>();
+        for (SearchResultDto result : candidates(criteria, loader)) {
+            if (after == null || after.isBefore(result)) {
+                results.add(result);
+            }
+        }
+        results.sort(SearchCursor.ORDER);
+        if (criteria.getLimit() != null && results.size() > criteria.getLimit()) {
+            return new ArrayList<>(results.subList(0, criteria.getLimit()));
+        }
+        return results;
+    }
+
+    // Every cached match within the criteria's radius, with its distance from the criteria's position; unordered
+    public List<SearchResultDto> candidates(NearbySearchCriteria criteria, Loader loader) {
+        double lat = criteria.getLat();
+        double lng = criteria.getLng();
+        double radius = criteria.getRadius();
+        long row = (long) Math.floor(lat / cellDegrees);
+        long column = (long) Math.floor(lng / cellDegrees);
+        double radiusBucket = Math.ceil(radius / radiusBucketKm) * radiusBucketKm;
+        String category = criteria.getCategory() == null ? null : normalize(criteria.getCategory());
+        Key key = new Key(normalize(criteria.getQuery()), category, row, column, radiusBucket);
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || entry.stamp() != stamp(entry.regions())) {
+            double centerLat = (row + 0.5) * cellDegrees;
+            double centerLng = (column + 0.5) * cellDegrees;
+            double halfDiagonalKm = GeoUtils.distanceKm(centerLat, centerLng,
+                    centerLat + cellDegrees / 2, centerLng + cellDegrees / 2);
+            double coverRadius = radiusBucket + halfDiagonalKm;
+            long[] regions = regionsCovering(centerLat, centerLng, coverRadius);
+            // Stamped before loading, so a change committed mid-load leaves the entry already stale
+            long stamp = stamp(regions);
+            // Distances are recomputed per request anyway, so the database needn't sort
+            NearbySearchCriteria load = new NearbySearchCriteria(key.query(), centerLat, centerLng, coverRadius);
+            load.setCategory(key.category());
+            load.setUnordered(true);
+            entry = new Entry(loader.load(load), regions, stamp);
+            cache.put(key, entry);
+        }
+
+        List<SearchResultDto> results = new ArrayList<>();
+        for (SearchResultDto candidate : entry.candidates()) {
+            double distance = GeoUtils.distanceKm(lat, lng, candidate.getLatitude(), candidate.getLongitude());
+            if (distance <= radius) {
+                results.add(new SearchResultDto(candidate.getId(), candidate.getName(), candidate.getAddress(),
+                        candidate.getLatitude(), candidate.getLongitude(), candidate.getProductId(),
+                        candidate.getProductName(), candidate.getCategory(), candidate.getQuantity(),
+                        candidate.getPrice(), distance));
+            }
+        }
+        return results;
+    }
+
+    // O(1) per change: entries are checked against their regions' versions when read, not scanned here
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        invalidateAround(event.getStoreId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreChanged(StoreChangedEvent event) {
+        invalidateAround(event.getStoreId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // Unknown locations invalidate everything
+    private void invalidateAround(Long storeId) {
+        double[] location = storeLocationIndex.getLocation(storeId);
+        if (location == null) {
+            generation.incrementAndGet();
+            return;
+        }
+        regionVersions.computeIfAbsent(regionOf(location[0], location[1]), r -> new AtomicLong()).incrementAndGet();
+    }
+
+    private long stamp(long[] regions) {
+        long stamp = generation.get();
+        for (long region : regions) {
+            AtomicLong version = regionVersions.get(region);
+            if (version != null) {
+                stamp += version.get();
+            }
+        }
+        return stamp;
+    }
+
+    long regionOf(double lat, double lng) {
+        long row = (long) Math.floor(Math.max(-90.0, Math.min(90.0, lat)) / regionDegrees);
+        long column = Math.floorMod((long) Math.floor(lng / regionDegrees), regionColumns);
+        return row * regionColumns + column;
+    }
+
+    // Every region the circle's bounding box touches, wrapping across the antimeridian
+    long[] regionsCovering(double lat, double lng, double radiusKm) {
+        double latDelta = GeoUtils.latitudeDeltaDegrees(radiusKm);
+        double lngDelta = GeoUtils.longitudeDeltaDegrees(lat, radiusKm);
+        long firstRow = (long) Math.floor(Math.max(-90.0, lat - latDelta) / regionDegrees);
+        long lastRow = (long) Math.floor(Math.min(90.0, lat + latDelta) / regionDegrees);
+        long firstColumn = (long) Math.floor((lng - lngDelta) / regionDegrees);
+        long lastColumn = (long) Math.floor((lng + lngDelta) / regionDegrees);
+        if (lastColumn - firstColumn + 1 >= regionColumns) {
+            firstColumn = 0;
+            lastColumn = regionColumns - 1;
+        }
+        Set<Long> regions = new HashSet<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            for (long column = firstColumn; column <= lastColumn; column++) {
+                regions.add(row * regionColumns + Math.floorMod(column, regionColumns));
+            }
+        }
+        return regions.stream().mapToLong(Long::longValue).toArray();
+    }
+}
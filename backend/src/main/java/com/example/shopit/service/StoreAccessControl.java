@@ -0,0 +1,93 @@
+package com.example.shopit.service;
+
+import com.example.shopit.entity.StoreOwner;
+import com.example.shopit.event.StoreOwnerChangedEvent;
+import com.example.shopit.repository.StoreOwnerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Which stores an owner email may manage, cached per email so management requests skip the ownership query
+@Component
+public class StoreAccessControl {
+
+    public record Grant(Long storeId, StoreOwner.Role role, String permissions) {
+    }
+
+    // storeOwnerAuthId is null when the email has no active stores
+    private record Access(Long storeOwnerAuthId, Map<Long, Grant> grants) {
+    }
+
+    @Autowired
+    private StoreOwnerRepository storeOwnerRepository;
+
+    @Value("${shopit.store-access.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shopit.store-access.max-emails:10000}")
+    private long maxEmails;
+
+    // Safety net for ownership changes made outside this application instance
+    @Value("${shopit.store-access.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final AtomicLong generation = new AtomicLong();
+    private Cache<String, Access> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEmails)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public boolean hasAccess(String email, Long storeId) {
+        return getGrant(email, storeId).isPresent();
+    }
+
+    public Optional<Grant> getGrant(String email, Long storeId) {
+        if (email == null || storeId == null) {
+            return Optional.empty();
+        }
+        Access access = enabled ? cache.getIfPresent(email) : null;
+        if (access == null) {
+            // A change committed while loading may not be in the result, so it isn't cached then
+            long seenGeneration = generation.get();
+            access = load(email);
+            if (enabled && generation.get() == seenGeneration) {
+                cache.put(email, access);
+            }
+        }
+        return Optional.ofNullable(access.grants().get(storeId));
+    }
+
+    private Access load(String email) {
+        Long storeOwnerAuthId = null;
+        Map<Long, Grant> grants = new HashMap<>();
+        for (Object[] row : storeOwnerRepository.findActiveGrantsByEmail(email)) {
+            storeOwnerAuthId = (Long) row[0];
+            Long storeId = (Long) row[1];
+            grants.put(storeId, new Grant(storeId, (StoreOwner.Role) row[2], (String) row[3]));
+        }
+        return new Access(storeOwnerAuthId, Map.copyOf(grants));
+    }
+
+    // Drops the changed owner's entry, and every email cached without stores since it may be the new owner
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreOwnerChanged(StoreOwnerChangedEvent event) {
+        generation.incrementAndGet();
+        cache.asMap().entrySet().removeIf(e -> e.getValue().storeOwnerAuthId() == null
+                || e.getValue().storeOwnerAuthId().equals(event.getStoreOwnerAuthId()));
+    }
+}
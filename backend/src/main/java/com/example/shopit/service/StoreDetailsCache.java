@@ -0,0 +1,131 @@
+package com.example.shopit.service;
+
+import com.example.shopit.event.InventoryChangedEvent;
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.event.StoreChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+// Store details responses as ready-to-send JSON bytes (plain and gzip), keyed by store and its change version
+@Component
+public class StoreDetailsCache {
+
+    public record Entry(long version, LocalDate day, String eTag, byte[] json, byte[] gzip) {
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${shopit.store-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shopit.store-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    // Safety net for changes made outside this application instance
+    @Value("${shopit.store-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    // Bumped by product changes, which can touch any store; every bump raises the sum below
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private Cache<Long, Entry> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long storeId, Entry entry) -> entry.json().length + entry.gzip().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // Read before loading the details, so a change committed mid-load leaves the new entry already stale
+    public long currentVersion(Long storeId) {
+        AtomicLong version = versions.get(storeId);
+        return catalogVersion.get() + (version == null ? 0 : version.get());
+    }
+
+    // Null unless the entry is from the current version and day (expiry flags in the payload change daily)
+    public Entry get(Long storeId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(storeId);
+        if (entry == null || entry.version() != currentVersion(storeId) || !entry.day().equals(LocalDate.now())) {
+            return null;
+        }
+        return entry;
+    }
+
+    public Entry put(Long storeId, long version, String eTag, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Entry entry = new Entry(version, LocalDate.now(), eTag, json, gzip(json));
+        if (enabled && version == currentVersion(storeId)) {
+            cache.put(storeId, entry);
+        }
+        return entry;
+    }
+
+    // Published by StoreManagementService; these run once the change has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        bump(event.getStoreId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreChanged(StoreChangedEvent event) {
+        bump(event.getStoreId());
+    }
+
+    // Product names and dates appear in every store's payload
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogVersion.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // For changes that don't publish an event, such as buffered inventory updates
+    public void invalidate(Long storeId) {
+        bump(storeId);
+    }
+
+    private void bump(Long storeId) {
+        if (storeId == null) {
+            return;
+        }
+        versions.computeIfAbsent(storeId, id -> new AtomicLong()).incrementAndGet();
+        cache.invalidate(storeId);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
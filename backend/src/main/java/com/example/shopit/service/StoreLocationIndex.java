@@ -0,0 +1,195 @@
+package com.example.shopit.service;
+
+import com.example.shopit.event.StoreLocationChangedEvent;
+import com.example.shopit.repository.StoreRepository;
+import com.example.shopit.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Fixed-cell grid over store coordinates, so a search only looks at the stores near the user
+@Component
+public class StoreLocationIndex {
+
+    // Candidates are re-checked in SQL, so keep boundary stores the database would still accept
+    private static final double RADIUS_TOLERANCE_KM = 1e-6;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Value("${shopit.search.grid.cell-degrees:0.05}")
+    private double cellDegrees;
+
+    private volatile Grid grid;
+    // Puts and removes made while a rebuild reads the table (null location = removed), replayed onto the
+    // new grid before it is swapped in; the read may predate them
+    private Map<Long, double[]> changedDuringRebuild;
+    private final Object rebuildLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Picks up stores inserted outside the application (SQL imports, sample data)
+    @Scheduled(fixedDelayString = "${shopit.search.grid.refresh-ms:300000}",
+            initialDelayString = "${shopit.search.grid.refresh-ms:300000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            Grid fresh = new Grid(cellDegrees);
+            try {
+                for (Object[] row : storeRepository.findAllLocations()) {
+                    fresh.put((Long) row[0], (Double) row[1], (Double) row[2]);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                changedDuringRebuild.forEach((storeId, location) -> {
+                    if (location == null) {
+                        fresh.remove(storeId);
+                    } else {
+                        fresh.put(storeId, location[0], location[1]);
+                    }
+                });
+                changedDuringRebuild = null;
+                grid = fresh;
+            }
+        }
+    }
+
+    public boolean isLoaded() {
+        return grid != null;
+    }
+
+    // After commit only: a store from a rolled-back transaction must never reach the grid
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreLocationChanged(StoreLocationChangedEvent event) {
+        put(event.getStoreId(), event.getLatitude(), event.getLongitude());
+    }
+
+    public synchronized void put(Long storeId, Double lat, Double lng) {
+        if (storeId == null || lat == null || lng == null) {
+            return;
+        }
+        if (grid != null) {
+            grid.put(storeId, lat, lng);
+        }
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(storeId, new double[] {lat, lng});
+        }
+    }
+
+    public synchronized void remove(Long storeId) {
+        if (grid != null) {
+            grid.remove(storeId);
+        }
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(storeId, null);
+        }
+    }
+
+    public List<Long> findStoreIdsWithinRadius(double lat, double lng, double radiusKm) {
+        Grid current = grid;
+        if (current == null) {
+            return List.of();
+        }
+        return current.findWithinRadius(lat, lng, radiusKm + RADIUS_TOLERANCE_KM);
+    }
+
+    public double[] getLocation(Long storeId) {
+        Grid current = grid;
+        return current == null ? null : current.locations.get(storeId);
+    }
+
+    private static final class Grid {
+        private final double cellDegrees;
+        private final int lngCells;
+        private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+        private final Map<Long, double[]> locations = new ConcurrentHashMap<>();
+
+        private Grid(double cellDegrees) {
+            this.cellDegrees = cellDegrees;
+            this.lngCells = (int) Math.ceil(360.0 / cellDegrees);
+        }
+
+        private void put(Long storeId, Double lat, Double lng) {
+            if (storeId == null || lat == null || lng == null) {
+                return;
+            }
+            remove(storeId);
+            locations.put(storeId, new double[] {lat, lng});
+            cells.computeIfAbsent(cellKey(lat, lng), k -> ConcurrentHashMap.newKeySet()).add(storeId);
+        }
+
+        private void remove(Long storeId) {
+            double[] previous = locations.remove(storeId);
+            if (previous != null) {
+                Set<Long> cell = cells.get(cellKey(previous[0], previous[1]));
+                if (cell != null) {
+                    cell.remove(storeId);
+                }
+            }
+        }
+
+        private List<Long> findWithinRadius(double lat, double lng, double radiusKm) {
+            double latDelta = GeoUtils.latitudeDeltaDegrees(radiusKm);
+            double lngDelta = GeoUtils.longitudeDeltaDegrees(lat, radiusKm);
+
+            int minRow = latRow(Math.max(-90.0, lat - latDelta));
+            int maxRow = latRow(Math.min(90.0, lat + latDelta));
+            int firstColumn = (int) Math.floor((lng - lngDelta + 180.0) / cellDegrees);
+            int lastColumn = (int) Math.floor((lng + lngDelta + 180.0) / cellDegrees);
+            if (lastColumn - firstColumn >= lngCells) {
+                lastColumn = firstColumn + lngCells - 1;
+            }
+
+            List<Long> storeIds = new ArrayList<>();
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    Set<Long> cell = cells.get(key(row, Math.floorMod(column, lngCells)));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Long storeId : cell) {
+                        double[] location = locations.get(storeId);
+                        if (location != null && GeoUtils.distanceKm(lat, lng, location[0], location[1]) <= radiusKm) {
+                            storeIds.add(storeId);
+                        }
+                    }
+                }
+            }
+            return storeIds;
+        }
+
+        private long cellKey(double lat, double lng) {
+            int column = Math.floorMod((int) Math.floor((lng + 180.0) / cellDegrees), lngCells);
+            return key(latRow(lat), column);
+        }
+
+        private int latRow(double lat) {
+            return (int) Math.floor((lat + 90.0) / cellDegrees);
+        }
+
+        private static long key(int row, int column) {
+            return ((long) row << 32) | (column & 0xffffffffL);
+        }
+    }
+}
@@ -1,26 +1,79 @@
 package com.example.shopit.service;
 
+import com.example.shopit.dto.BulkInventoryResultDto;
+import com.example.shopit.dto.BulkInventoryRowResultDto;
+import com.example.shopit.dto.InventoryDeltaResultDto;
+import com.example.shopit.dto.InventorySyncDto;
 import com.example.shopit.dto.InventoryUpdateDto;
 import com.example.shopit.dto.StoreRegistrationDto;
 import com.example.shopit.entity.*;
+import com.example.shopit.event.InventoryChangedEvent;
+import com.example.shopit.event.StoreChangedEvent;
+import com.example.shopit.event.StoreLocationChangedEvent;
 import com.example.shopit.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class StoreManagementService {
 
+    // Relies on UNIQUE (store_id, product_id); a price left out keeps the stored one, like updateInventory
+    private static final String UPSERT_INVENTORY_SQL = """
+        INSERT INTO inventory (store_id, product_id, quantity, price, last_updated)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT (store_id, product_id) DO UPDATE
+        SET quantity = EXCLUDED.quantity,
+            price = COALESCE(EXCLUDED.price, inventory.price),
+            last_updated = EXCLUDED.last_updated
+        """;
+
+    // One statement: the row lock is held only while it runs, and concurrent deltas queue on it instead of
+    // overwriting each other. Without the floor the sum is clamped at 0; the locked row's old quantity gives
+    // the part of the delta that was actually applied
+    private static final String APPLY_DELTA_SQL = """
+        WITH locked AS (
+            SELECT id, quantity FROM inventory WHERE store_id = ? AND product_id = ? FOR UPDATE
+        )
+        UPDATE inventory i
+        SET quantity = GREATEST(locked.quantity + ?, 0), last_updated = ?
+        FROM locked
+        WHERE i.id = locked.id AND (? = false OR locked.quantity + ? >= 0)
+        RETURNING i.quantity, i.price, i.quantity - locked.quantity AS applied_delta
+        """;
+
+    private static final String CURRENT_QUANTITY_SQL = """
+        SELECT quantity, price FROM inventory WHERE store_id = ? AND product_id = ?
+        """;
+
     @Autowired
     private StoreRepository storeRepository;
 
     @Autowired
     private StoreOwnerRepository storeOwnerRepository;
 
+    @Autowired
+    private StoreAccessControl storeAccessControl;
+
     @Autowired
     private StoreOwnerAuthRepository storeOwnerAuthRepository;
 
@@ -30,6 +83,36 @@ public class StoreManagementService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryWriteBehind inventoryWriteBehind;
+
+    @Autowired
+    private InventoryChangeOutbox inventoryChangeOutbox;
+
+    @Autowired
+    private InventoryChangeRepository inventoryChangeRepository;
+
+    @Value("${shopit.inventory.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${shopit.inventory.bulk.max-rows:10000}")
+    private int bulkMaxRows;
+
+    // Rows commit a little after their lastUpdated is set, so each sync reaches back this far and may resend
+    // a few unchanged rows
+    @Value("${shopit.inventory.sync.overlap-ms:10000}")
+    private long syncOverlapMs;
+
+    // Deletes are only known from the change feed, which keeps them this long
+    @Value("${shopit.inventory.changes.retention-hours:168}")
+    private long changeRetentionHours;
+
     public Store registerStore(StoreRegistrationDto registrationDto) {
         // Find the authenticated store owner by email
         StoreOwnerAuth storeOwnerAuth = storeOwnerAuthRepository.findByEmailAndIsActive(registrationDto.getOwnerEmail(), true)
@@ -59,13 +142,16 @@ public class StoreManagementService {
         storeOwner.setPermissions("{\"manage_inventory\": true, \"manage_store\": true, \"view_analytics\": true, \"manage_staff\": true}");
         storeOwnerRepository.save(storeOwner);
 
+        // Indexed once the transaction commits, so a rolled-back registration never shows up in searches
+        eventPublisher.publishEvent(new StoreLocationChangedEvent(savedStore.getId(),
+                savedStore.getLatitude(), savedStore.getLongitude()));
+
         return savedStore;
     }
 
     public Store updateStore(Long storeId, String email, Store storeUpdate) {
         // Verify ownership
-        Optional<StoreOwner> ownership = storeOwnerRepository.findByStoreOwnerAuthEmailAndStoreId(email, storeId);
-        if (ownership.isEmpty()) {
+        if (!storeAccessControl.hasAccess(email, storeId)) {
             throw new RuntimeException("Access denied. You don't own this store.");
         }
 
@@ -84,13 +170,15 @@ public class StoreManagementService {
         existingStore.setOpeningHours(storeUpdate.getOpeningHours());
         existingStore.setUpdatedAt(LocalDateTime.now());
 
-        return storeRepository.save(existingStore);
+        Store savedStore = storeRepository.save(existingStore);
+        eventPublisher.publishEvent(new StoreChangedEvent(storeId));
+
+        return savedStore;
     }
 
     public Inventory updateInventory(Long storeId, String email, InventoryUpdateDto inventoryUpdate) {
         // Verify ownership
-        Optional<StoreOwner> ownership = storeOwnerRepository.findByStoreOwnerAuthEmailAndStoreId(email, storeId);
-        if (ownership.isEmpty()) {
+        if (!storeAccessControl.hasAccess(email, storeId)) {
             throw new RuntimeException("Access denied");
         }
 
@@ -102,11 +190,6 @@ public class StoreManagementService {
         }
 
         Inventory inventory = existingInventory.get();
-        inventory.setQuantity(inventoryUpdate.getQuantity());
-        if (inventoryUpdate.getPrice() != null) {
-            inventory.setPrice(inventoryUpdate.getPrice());
-        }
-        inventory.setLastUpdated(LocalDateTime.now());
 
         // Update product dates if provided
         if (inventoryUpdate.getManufacturingDate() != null || inventoryUpdate.getExpiryDate() != null) {
@@ -120,13 +203,105 @@ public class StoreManagementService {
             productRepository.save(product);
         }
 
-        return inventoryRepository.save(inventory);
+        // Write-behind: quantity and price are buffered once this transaction commits and written with the
+        // next flush. The response is a copy, so the loaded entity isn't dirtied and written here after all
+        if (inventoryWriteBehind.isEnabled()) {
+            inventoryWriteBehind.updateAfterCommit(
+                    storeId, inventoryUpdate.getProductId(), inventoryUpdate.getQuantity(), inventoryUpdate.getPrice());
+            InventoryWriteBehind.Pending pending = inventoryWriteBehind.get(storeId, inventoryUpdate.getProductId());
+            BigDecimal price = inventoryUpdate.getPrice() != null ? inventoryUpdate.getPrice()
+                    : pending != null && pending.getPrice() != null ? pending.getPrice() : inventory.getPrice();
+            Inventory response = new Inventory(inventory.getStore(), inventory.getProduct(),
+                    inventoryUpdate.getQuantity(), price);
+            response.setId(inventory.getId());
+            response.setLastUpdated(LocalDateTime.now());
+            return response;
+        }
+
+        inventory.setQuantity(inventoryUpdate.getQuantity());
+        if (inventoryUpdate.getPrice() != null) {
+            inventory.setPrice(inventoryUpdate.getPrice());
+        }
+        inventory.setLastUpdated(LocalDateTime.now());
+
+        // Flushed so the outbox row follows the row lock
+        Inventory savedInventory = inventoryRepository.saveAndFlush(inventory);
+        appendInventoryChange(storeId, inventoryUpdate.getProductId(), savedInventory, false);
+        publishInventoryChange(storeId, inventoryUpdate.getProductId(), savedInventory, false);
+
+        return savedInventory;
+    }
+
+    // Adds delta (negative for a sale) to the stored quantity without reading the row first
+    public InventoryDeltaResultDto adjustInventoryQuantity(Long storeId, String email, Long productId,
+                                                          int delta, boolean failIfNegative) {
+        // Verify ownership
+        if (!storeAccessControl.hasAccess(email, storeId)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        return applyQuantityDelta(storeId, productId, delta, failIfNegative);
+    }
+
+    // Not applied (with the current quantity) when failIfNegative and the stock is short; otherwise clamped
+    // is set when the floor at 0 dropped part of the delta
+    public InventoryDeltaResultDto applyQuantityDelta(Long storeId, Long productId, int delta, boolean failIfNegative) {
+        inventoryWriteBehind.flush(storeId, productId);
+        RowMapper<InventoryDeltaResultDto> applied = (rs, rowNum) -> new InventoryDeltaResultDto(
+                storeId, productId, rs.getInt("quantity"), rs.getBigDecimal("price"), true,
+                rs.getInt("applied_delta"), rs.getInt("applied_delta") != delta);
+        List<InventoryDeltaResultDto> updated = jdbcTemplate.query(APPLY_DELTA_SQL, applied,
+                storeId, productId, delta, Timestamp.valueOf(LocalDateTime.now()), failIfNegative, delta);
+        if (!updated.isEmpty()) {
+            InventoryDeltaResultDto result = updated.get(0);
+            inventoryChangeOutbox.append(storeId, productId, result.getQuantity(), result.getPrice(), false);
+            eventPublisher.publishEvent(new InventoryChangedEvent(
+                    storeId, productId, result.getQuantity(), result.getPrice(), false));
+            return result;
+        }
+
+        // Nothing updated: either there's no such item or the stock is short
+        RowMapper<InventoryDeltaResultDto> current = (rs, rowNum) -> new InventoryDeltaResultDto(
+                storeId, productId, rs.getInt("quantity"), rs.getBigDecimal("price"), false, 0, false);
+        List<InventoryDeltaResultDto> existing = jdbcTemplate.query(CURRENT_QUANTITY_SQL, current, storeId, productId);
+        if (existing.isEmpty()) {
+            throw new RuntimeException("Inventory item not found");
+        }
+        return existing.get(0);
+    }
+
+    // Rows added or changed since the token, plus tombstones for deleted ones. A missing or expired token
+    // gets the full inventory with reset set
+    @Transactional(readOnly = true)
+    public InventorySyncDto getInventorySince(Long storeId, String since) {
+        LocalDateTime now = LocalDateTime.now();
+        String token = Long.toString(Timestamp.valueOf(now.minus(Duration.ofMillis(syncOverlapMs))).getTime());
+        LocalDateTime from = null;
+        if (since != null && !since.isBlank()) {
+            try {
+                from = new Timestamp(Long.parseLong(since.trim())).toLocalDateTime();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+        }
+        if (from == null || from.isBefore(now.minusHours(changeRetentionHours))) {
+            return new InventorySyncDto(getInventory(storeId), List.of(), token, true);
+        }
+        // A buffered update shows up here once flushed, since the flush stamps last_updated
+        List<Inventory> changed = inventoryRepository.findByStoreIdAndLastUpdatedAfter(storeId, from);
+        return new InventorySyncDto(inventoryWriteBehind.overlayInventory(storeId, changed),
+                inventoryChangeRepository.findDeletedProductIds(storeId, from), token, false);
+    }
+
+    // The full listing, with buffered (write-behind) values overlaid like every other inventory read
+    @Transactional(readOnly = true)
+    public List<Inventory> getInventory(Long storeId) {
+        return inventoryWriteBehind.overlayInventory(storeId, inventoryRepository.findByStoreId(storeId));
     }
 
     public Inventory addInventoryItem(Long storeId, String email, InventoryUpdateDto inventoryItem) {
         // Verify ownership
-        Optional<StoreOwner> ownership = storeOwnerRepository.findByStoreOwnerAuthEmailAndStoreId(email, storeId);
-        if (ownership.isEmpty()) {
+        if (!storeAccessControl.hasAccess(email, storeId)) {
             throw new RuntimeException("Access denied");
         }
 
@@ -150,13 +325,16 @@ public class StoreManagementService {
         inventory.setPrice(inventoryItem.getPrice());
         inventory.setLastUpdated(LocalDateTime.now());
 
-        return inventoryRepository.save(inventory);
+        Inventory savedInventory = inventoryRepository.saveAndFlush(inventory);
+        appendInventoryChange(storeId, product.getId(), savedInventory, false);
+        publishInventoryChange(storeId, product.getId(), savedInventory, false);
+
+        return savedInventory;
     }
 
     public void deleteInventoryItem(Long storeId, Long productId, String email) {
         // Verify ownership
-        Optional<StoreOwner> ownership = storeOwnerRepository.findByStoreOwnerAuthEmailAndStoreId(email, storeId);
-        if (ownership.isEmpty()) {
+        if (!storeAccessControl.hasAccess(email, storeId)) {
             throw new RuntimeException("Access denied");
         }
 
@@ -165,6 +343,145 @@ public class StoreManagementService {
             throw new RuntimeException("Inventory item not found");
         }
 
+        inventoryWriteBehind.discard(storeId, productId);
         inventoryRepository.delete(inventory.get());
+        inventoryRepository.flush();
+        appendInventoryChange(storeId, productId, inventory.get(), true);
+        publishInventoryChange(storeId, productId, inventory.get(), true);
+    }
+
+    // Adds or updates many items with one ownership check and batched upserts; invalid rows are reported, not fatal
+    public BulkInventoryResultDto bulkUpsertInventory(Long storeId, String email, List<InventoryUpdateDto> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("No inventory rows given");
+        }
+        if (rows.size() > bulkMaxRows) {
+            throw new IllegalArgumentException("Too many inventory rows, at most " + bulkMaxRows + " per request");
+        }
+
+        // Verify ownership
+        if (!storeAccessControl.hasAccess(email, storeId)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        BulkInventoryRowResultDto[] results = new BulkInventoryRowResultDto[rows.size()];
+        Set<Long> productIds = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            InventoryUpdateDto row = rows.get(i);
+            String error = validateInventoryRow(row);
+            if (error != null) {
+                results[i] = rejected(i, row, error);
+            } else {
+                productIds.add(row.getProductId());
+            }
+        }
+        Set<Long> existing = productIds.isEmpty() ? Set.of() : new HashSet<>(productRepository.findExistingIds(productIds));
+
+        // One statement per product; when a product repeats, its last row wins
+        Map<Long, Integer> lastRowByProduct = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long productId = rows.get(i).getProductId();
+            if (!existing.contains(productId)) {
+                results[i] = rejected(i, rows.get(i), "Product not found");
+                continue;
+            }
+            Integer earlier = lastRowByProduct.put(productId, i);
+            if (earlier != null) {
+                results[earlier] = rejected(earlier, rows.get(earlier), "Replaced by row " + i + " for the same product");
+            }
+        }
+
+        List<InventoryUpdateDto> upserts = new ArrayList<>(lastRowByProduct.size());
+        for (int i : lastRowByProduct.values()) {
+            upserts.add(rows.get(i));
+            results[i] = new BulkInventoryRowResultDto(i, rows.get(i).getProductId(), "upserted", null);
+        }
+        upsertInventoryRows(storeId, upserts);
+
+        int upserted = upserts.size();
+        return new BulkInventoryResultDto(upserted, rows.size() - upserted, Arrays.asList(results));
+    }
+
+    // Writes validated rows for existing products, at most one per product, in this transaction
+    // Used by bulk requests and file imports; callers have already checked ownership
+    public void upsertInventoryRows(Long storeId, List<InventoryUpdateDto> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        inventoryWriteBehind.flushStore(storeId);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_INVENTORY_SQL, rows, bulkChunkSize, (ps, row) -> {
+            ps.setLong(1, storeId);
+            ps.setLong(2, row.getProductId());
+            ps.setInt(3, row.getQuantity());
+            ps.setObject(4, row.getPrice(), Types.NUMERIC);
+            ps.setTimestamp(5, now);
+        });
+        inventoryChangeOutbox.appendCurrent(storeId, rows.stream().map(InventoryUpdateDto::getProductId).toList(),
+                bulkChunkSize);
+
+        // Product dates, as in updateInventory
+        Map<Long, InventoryUpdateDto> dated = new LinkedHashMap<>();
+        for (InventoryUpdateDto row : rows) {
+            if (row.getManufacturingDate() != null || row.getExpiryDate() != null) {
+                dated.put(row.getProductId(), row);
+            }
+        }
+        if (!dated.isEmpty()) {
+            List<Product> products = productRepository.findAllById(dated.keySet());
+            for (Product product : products) {
+                InventoryUpdateDto row = dated.get(product.getId());
+                if (row.getManufacturingDate() != null) {
+                    product.setManufacturingDate(row.getManufacturingDate());
+                }
+                if (row.getExpiryDate() != null) {
+                    product.setExpiryDate(row.getExpiryDate());
+                }
+            }
+            productRepository.saveAll(products);
+        }
+
+        // One store-wide invalidation instead of an event (and a cache scan) per row
+        eventPublisher.publishEvent(new StoreChangedEvent(storeId));
+    }
+
+    // Same rules as the @Valid annotations on InventoryUpdateDto, checked per row so one bad row doesn't fail the batch
+    static String validateInventoryRow(InventoryUpdateDto row) {
+        if (row == null) {
+            return "Row is empty";
+        }
+        if (row.getProductId() == null) {
+            return "Product ID is required";
+        }
+        if (row.getQuantity() == null) {
+            return "Quantity is required";
+        }
+        if (row.getQuantity() < 0) {
+            return "Quantity must be non-negative";
+        }
+        if (row.getPrice() != null && row.getPrice().signum() < 0) {
+            return "Price must be non-negative";
+        }
+        return null;
+    }
+
+    private static BulkInventoryRowResultDto rejected(int index, InventoryUpdateDto row, String error) {
+        return new BulkInventoryRowResultDto(index, row == null ? null : row.getProductId(), "rejected", error);
+    }
+
+    // Deleted items are recorded with quantity 0
+    private void appendInventoryChange(Long storeId, Long productId, Inventory inventory, boolean deleted) {
+        inventoryChangeOutbox.append(storeId, productId, deleted ? 0 : inventory.getQuantity(),
+                inventory.getPrice(), deleted);
+    }
+
+    // Listeners such as the search cache run after commit, so readers never repopulate from uncommitted state
+    private void publishInventoryChange(Long storeId, Long productId, Inventory inventory, boolean deleted) {
+        eventPublisher.publishEvent(new InventoryChangedEvent(
+                storeId, productId, inventory.getQuantity(), inventory.getPrice(), deleted));
     }
 }
\ No newline at end of file
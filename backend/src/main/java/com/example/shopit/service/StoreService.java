@@ -1,27 +1,593 @@
 package com.example.shopit.service;
 
+import com.example.shopit.dto.BasketItemDto;
+import com.example.shopit.dto.BasketSearchRequestDto;
+import com.example.shopit.dto.BasketStoreResultDto;
+import com.example.shopit.dto.CategoryFacetDto;
 import com.example.shopit.dto.InventoryDto;
+import com.example.shopit.dto.InventoryPageDto;
+import com.example.shopit.dto.SearchPageDto;
 import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.dto.StoreDetailsDto;
 import com.example.shopit.entity.Inventory;
 import com.example.shopit.entity.Store;
+import com.example.shopit.repository.InventoryPageCriteria;
 import com.example.shopit.repository.InventoryRepository;
+import com.example.shopit.repository.NearbySearchCriteria;
+import com.example.shopit.repository.ProductRepository;
 import com.example.shopit.repository.StoreRepository;
+import com.example.shopit.util.LikePatterns;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class StoreService {
+    public interface RowWriter {
+        void write(SearchResultDto row) throws IOException;
+    }
+
+    private static final int DEFAULT_BASKET_LIMIT = 20;
+
     @Autowired
     private StoreRepository storeRepository;
 
     @Autowired
     private InventoryRepository inventoryRepository;
 
-    public List<SearchResultDto> searchNearbyStores(String query, Double lat, Double lng, Double radius) {
-        return storeRepository.findNearbyStoresWithProduct(query, lat, lng, radius);
+    @Autowired
+    private StoreLocationIndex storeLocationIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private FuzzyTermIndex fuzzyTermIndex;
+
+    @Autowired
+    private SearchHistoryRecorder searchHistoryRecorder;
+
+    @Autowired
+    private SearchRanker searchRanker;
+
+    @Autowired
+    private InventoryWriteBehind inventoryWriteBehind;
+
+    @Value("${shopit.search.grid.max-candidates:5000}")
+    private int maxGridCandidates;
+
+    // memory: in-process trigram index, pg_trgm: GIN-indexed lookup, none: LIKE inside the search query
+    @Value("${shopit.search.product-index.backend:memory}")
+    private String productIndexBackend;
+
+    @Value("${shopit.search.product-index.max-candidates:1000}")
+    private int maxProductCandidates;
+
+    @Value("${shopit.search.fuzzy.enabled:true}")
+    private boolean fuzzyFallbackEnabled;
+
+    @Value("${shopit.search.knn.initial-radius-km:2}")
+    private double nearestInitialRadiusKm;
+
+    @Value("${shopit.search.knn.max-radius-km:200}")
+    private double nearestMaxRadiusKm;
+
+    @Value("${shopit.search.knn.max-k:50}")
+    private int maxNearestStores;
+
+    @Value("${shopit.search.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${shopit.inventory.page.default-size:50}")
+    private int defaultInventoryPageSize;
+
+    @Value("${shopit.inventory.page.max-size:500}")
+    private int maxInventoryPageSize;
+
+    @Value("${shopit.search.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${shopit.search.max-limit:500}")
+    private int maxLimit;
+
+    // grid: in-memory store grid + JPQL, postgis: native query on the idx_stores_location_geography GIST index
+    @Value("${shopit.search.mode:grid}")
+    private String searchMode;
+
+    // sort: distance (default, keyset paged) or relevance (scored top-k, single page). Every page is capped at
+    // limit (shopit.search.default-limit when absent); the rest is behind X-Next-Cursor. facets counts every
+    // match per category from the same rows
+    public SearchPageDto searchNearbyStores(String query, String category, Double lat, Double lng, Double radius,
+                                            Integer limit, String cursor, String sort, boolean facets) {
+        query = trimQuery(query);
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        boolean relevance = "relevance".equalsIgnoreCase(sort);
+        if (!relevance && sort != null && !"distance".equalsIgnoreCase(sort)) {
+            throw new IllegalArgumentException("Invalid sort: use distance or relevance");
+        }
+        if (relevance && after != null) {
+            throw new IllegalArgumentException("cursor is not supported with sort=relevance");
+        }
+        // Counts are for the whole search, which only the first page reads
+        if (facets && after != null) {
+            throw new IllegalArgumentException("facets cannot be combined with cursor");
+        }
+        if (after != null) {
+            return searchPage(query, category, lat, lng, radius, pageSize, after, false);
+        }
+
+        // Once per search, not per page
+        searchHistoryRecorder.record(null, query, lat, lng);
+        return withFuzzyFallback(query, q -> relevance
+                ? rankedPage(q, category, lat, lng, radius, pageSize, facets)
+                : searchPage(q, category, lat, lng, radius, pageSize, null, facets));
+    }
+
+    // The k nearest stores stocking a match, however far away they are (up to shopit.search.knn.max-radius-km)
+    public SearchPageDto searchNearestStores(String query, String category, Double lat, Double lng, int k,
+                                             boolean facets) {
+        query = trimQuery(query);
+        searchHistoryRecorder.record(null, query, lat, lng);
+        int storeCount = Math.max(1, Math.min(k, maxNearestStores));
+        return withFuzzyFallback(query, q -> {
+            List<SearchResultDto> rows = findNearest(q, category, lat, lng, storeCount);
+            SearchPageDto page = new SearchPageDto(rows, null);
+            if (facets) {
+                page.setFacets(categoryFacets(rows));
+            }
+            return page;
+        });
+    }
+
+    // Once at each entry point, so the cached and uncached paths (and search history) see the same query
+    private static String trimQuery(String query) {
+        return query == null ? null : query.trim();
+    }
+
+    // Nothing matched: retry with the closest known spellings, best first
+    private SearchPageDto withFuzzyFallback(String query, Function<String, SearchPageDto> search) {
+        SearchPageDto page = search.apply(query);
+        // Very long queries skip correction; expanding them costs far more than the search itself
+        if (!page.getResults().isEmpty() || !fuzzyFallbackEnabled || !fuzzyTermIndex.isCorrectable(query)) {
+            return page;
+        }
+        for (String correctedQuery : fuzzyTermIndex.expand(query)) {
+            SearchPageDto correctedPage = search.apply(correctedQuery);
+            if (!correctedPage.getResults().isEmpty()) {
+                correctedPage.setCorrectedQuery(correctedQuery);
+                return correctedPage;
+            }
+        }
+        return page;
+    }
+
+    // Expanding ring search: each round only queries the stores the grid adds between the previous radius
+    // and a doubled one. Once k stores qualify within the radius searched so far, no unexamined store
+    // can be nearer, so the search stops there.
+    private List<SearchResultDto> findNearest(String query, String category, double lat, double lng, int k) {
+        if (!storeLocationIndex.isLoaded()) {
+            return findNearestByRadius(query, category, lat, lng, k);
+        }
+        List<Long> productIds = findProductIds(query, category);
+        if (productIds != null && productIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> examined = new HashSet<>();
+        List<SearchResultDto> rows = new ArrayList<>();
+        Set<Long> qualifying = new HashSet<>();
+        double radius = Math.min(nearestInitialRadiusKm, nearestMaxRadiusKm);
+        while (true) {
+            List<Long> ring = new ArrayList<>();
+            for (Long storeId : storeLocationIndex.findStoreIdsWithinRadius(lat, lng, radius)) {
+                if (examined.add(storeId)) {
+                    ring.add(storeId);
+                }
+            }
+            for (int from = 0; from < ring.size(); from += maxGridCandidates) {
+                // The store list does the narrowing; the radius bound only has to admit every store in it
+                NearbySearchCriteria criteria = new NearbySearchCriteria(query, lat, lng, nearestMaxRadiusKm);
+                criteria.setCategory(category);
+                criteria.setStoreIds(ring.subList(from, Math.min(from + maxGridCandidates, ring.size())));
+                if (productIds != null && productIds.size() <= maxProductCandidates) {
+                    criteria.setProductIds(productIds);
+                }
+                criteria.setUnordered(true);
+                for (SearchResultDto row : storeRepository.searchNearby(criteria)) {
+                    rows.add(row);
+                    qualifying.add(row.getId());
+                }
+            }
+            if (qualifying.size() >= k || radius >= nearestMaxRadiusKm) {
+                break;
+            }
+            radius = Math.min(radius * 2, nearestMaxRadiusKm);
+        }
+        return nearestStoreRows(inventoryWriteBehind.overlay(rows), k);
+    }
+
+    // Before the grid is loaded: the same doubling, but each round is a plain radius query
+    private List<SearchResultDto> findNearestByRadius(String query, String category, double lat, double lng, int k) {
+        double radius = Math.min(nearestInitialRadiusKm, nearestMaxRadiusKm);
+        while (true) {
+            NearbySearchCriteria criteria = new NearbySearchCriteria(query, lat, lng, radius);
+            criteria.setCategory(category);
+            criteria.setUnordered(true);
+            List<SearchResultDto> rows = inventoryWriteBehind.overlay(searchUncached(criteria));
+            if (radius >= nearestMaxRadiusKm || rows.stream().map(SearchResultDto::getId).distinct().count() >= k) {
+                return nearestStoreRows(rows, k);
+            }
+            radius = Math.min(radius * 2, nearestMaxRadiusKm);
+        }
+    }
+
+    // Every matching row of the k nearest stores, in distance order
+    private static List<SearchResultDto> nearestStoreRows(List<SearchResultDto> rows, int k) {
+        rows.sort(SearchCursor.ORDER);
+        Set<Long> stores = new HashSet<>();
+        List<SearchResultDto> nearest = new ArrayList<>();
+        for (SearchResultDto row : rows) {
+            if (stores.contains(row.getId()) || stores.size() < k) {
+                stores.add(row.getId());
+                nearest.add(row);
+            }
+        }
+        return nearest;
+    }
+
+    private SearchPageDto searchPage(String query, String category, Double lat, Double lng, Double radius,
+                                     int pageSize, SearchCursor after, boolean facets) {
+        NearbySearchCriteria criteria = new NearbySearchCriteria(query, lat, lng, radius);
+        criteria.setCategory(category);
+        if (after != null) {
+            criteria.setAfter(after.getDistanceKey(), after.getStoreId(), after.getProductId());
+        }
+        // One extra row tells whether another page exists; facets count every match, so they need them all
+        if (!facets) {
+            criteria.setLimit(pageSize + 1);
+        }
+
+        List<SearchResultDto> rows;
+        if (searchResultCache.isCacheable(radius)) {
+            rows = searchResultCache.search(criteria, this::searchUncached);
+        } else {
+            rows = searchUncached(criteria);
+        }
+
+        // The next page and its cursor come from the stored rows: the write-behind overlay below can drop
+        // rows that are now out of stock, and that mustn't look like the end of the results
+        SearchPageDto page;
+        if (rows.size() <= pageSize) {
+            page = new SearchPageDto(inventoryWriteBehind.overlay(rows), null);
+        } else {
+            List<SearchResultDto> stored = new ArrayList<>(rows.subList(0, pageSize));
+            String nextCursor = SearchCursor.after(stored.get(pageSize - 1)).encode();
+            page = new SearchPageDto(inventoryWriteBehind.overlay(stored), nextCursor);
+        }
+        if (facets) {
+            page.setFacets(categoryFacets(inventoryWriteBehind.overlay(rows)));
+        }
+        return page;
+    }
+
+    // Every match is scored but only the best pageSize are kept, and the database doesn't sort
+    private SearchPageDto rankedPage(String query, String category, Double lat, Double lng, Double radius,
+                                     int pageSize, boolean facets) {
+        NearbySearchCriteria criteria = new NearbySearchCriteria(query, lat, lng, radius);
+        criteria.setCategory(category);
+        criteria.setUnordered(true);
+
+        List<SearchResultDto> candidates;
+        if (searchResultCache.isCacheable(radius)) {
+            candidates = searchResultCache.candidates(criteria, this::searchUncached);
+        } else {
+            candidates = searchUncached(criteria);
+        }
+        // Overlaid before ranking, so the top k are cut from current quantities and out-of-stock rows never
+        // take a place in them
+        candidates = inventoryWriteBehind.overlay(candidates);
+        SearchPageDto page = new SearchPageDto(searchRanker.topK(candidates, query, radius, pageSize), null);
+        if (facets) {
+            page.setFacets(categoryFacets(candidates));
+        }
+        return page;
+    }
+
+    // Matches per category over rows the search already holds, largest first
+    private static List<CategoryFacetDto> categoryFacets(List<SearchResultDto> rows) {
+        Map<String, long[]> counts = new HashMap<>();
+        for (SearchResultDto row : rows) {
+            counts.computeIfAbsent(row.getCategory(), c -> new long[1])[0]++;
+        }
+        List<CategoryFacetDto> facets = new ArrayList<>(counts.size());
+        for (Map.Entry<String, long[]> count : counts.entrySet()) {
+            facets.add(new CategoryFacetDto(count.getKey(), count.getValue()[0]));
+        }
+        facets.sort(Comparator.comparingLong(CategoryFacetDto::getCount).reversed()
+                .thenComparing(CategoryFacetDto::getCategory, Comparator.nullsLast(Comparator.naturalOrder())));
+        return facets;
+    }
+
+    private List<SearchResultDto> searchUncached(NearbySearchCriteria criteria) {
+        if ("postgis".equalsIgnoreCase(searchMode)) {
+            return searchWithPostgis(criteria);
+        }
+        return searchWithGrid(criteria);
+    }
+
+    // Writes rows as they come off the database cursor; the transaction keeps that cursor open
+    @Transactional(readOnly = true)
+    public void streamNearbyStores(String query, String category, Double lat, Double lng, Double radius, RowWriter writer) throws IOException {
+        query = trimQuery(query);
+        searchHistoryRecorder.record(null, query, lat, lng);
+        NearbySearchCriteria criteria = new NearbySearchCriteria(query, lat, lng, radius);
+        criteria.setCategory(category);
+        boolean postgis = "postgis".equalsIgnoreCase(searchMode);
+        if ((!postgis && !applyStoreFilter(criteria)) || !applyProductFilter(criteria)) {
+            return;
+        }
+
+        try (Stream<SearchResultDto> rows = postgis
+                ? storeRepository.streamNearbyPostgis(criteria, streamFetchSize)
+                : storeRepository.streamNearby(criteria, streamFetchSize)) {
+            Iterator<SearchResultDto> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                SearchResultDto row = iterator.next();
+                if (inventoryWriteBehind.overlay(row)) {
+                    writer.write(row);
+                }
+            }
+        }
+    }
+
+    // Stores near the user ranked by how many basket terms they stock, then by distance, from one query
+    public List<BasketStoreResultDto> searchBasket(BasketSearchRequestDto request) {
+        List<String> terms = request.getTerms().stream().map(String::trim).distinct().toList();
+        double radius = request.getRadius() == null ? 10.0 : request.getRadius();
+        int limit = request.getLimit() == null ? DEFAULT_BASKET_LIMIT : Math.min(request.getLimit(), maxLimit);
+
+        NearbySearchCriteria criteria = new NearbySearchCriteria(null, request.getLat(), request.getLng(), radius);
+        criteria.setQueries(terms);
+        boolean postgis = "postgis".equalsIgnoreCase(searchMode);
+        if ((!postgis && !applyStoreFilter(criteria)) || !applyBasketProductFilter(criteria, terms)) {
+            return Collections.emptyList();
+        }
+        List<SearchResultDto> rows = inventoryWriteBehind.overlay(postgis
+                ? storeRepository.searchNearbyPostgis(criteria)
+                : storeRepository.searchNearby(criteria));
+
+        // Rows arrive ordered by distance; keep the best match per term for each store
+        Map<Long, BasketStoreResultDto> stores = new LinkedHashMap<>();
+        Map<Long, SearchResultDto[]> bestMatches = new HashMap<>();
+        for (SearchResultDto row : rows) {
+            SearchResultDto[] best = bestMatches.computeIfAbsent(row.getId(), storeId -> {
+                stores.put(storeId, new BasketStoreResultDto(storeId, row.getName(), row.getAddress(),
+                        row.getLatitude(), row.getLongitude(), row.getDistanceKm(), terms.size()));
+                return new SearchResultDto[terms.size()];
+            });
+            for (int t = 0; t < terms.size(); t++) {
+                if (LikePatterns.containsLike(row.getProductName(), terms.get(t)) && isBetterBasketMatch(row, best[t])) {
+                    best[t] = row;
+                }
+            }
+        }
+
+        List<BasketStoreResultDto> results = new ArrayList<>(stores.values());
+        for (BasketStoreResultDto store : results) {
+            SearchResultDto[] best = bestMatches.get(store.getId());
+            for (int t = 0; t < terms.size(); t++) {
+                if (best[t] == null) {
+                    store.getMissingTerms().add(terms.get(t));
+                } else {
+                    store.getItems().add(new BasketItemDto(terms.get(t), best[t].getProductId(),
+                            best[t].getProductName(), best[t].getQuantity(), best[t].getPrice()));
+                }
+            }
+            store.setMatchedCount(store.getItems().size());
+        }
+        results.sort(Comparator.comparingInt(BasketStoreResultDto::getMatchedCount).reversed()
+                .thenComparing(BasketStoreResultDto::getDistanceKm)
+                .thenComparing(BasketStoreResultDto::getId));
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    // Cheapest match wins, then the one with more stock
+    private static boolean isBetterBasketMatch(SearchResultDto candidate, SearchResultDto current) {
+        if (current == null) {
+            return true;
+        }
+        if (candidate.getPrice() != null && current.getPrice() != null) {
+            int byPrice = candidate.getPrice().compareTo(current.getPrice());
+            if (byPrice != 0) {
+                return byPrice < 0;
+            }
+        } else if (candidate.getPrice() != null || current.getPrice() != null) {
+            return candidate.getPrice() != null;
+        }
+        return candidate.getQuantity() > current.getQuantity();
+    }
+
+    List<SearchResultDto> searchWithGrid(NearbySearchCriteria criteria) {
+        if (!applyStoreFilter(criteria) || !applyProductFilter(criteria)) {
+            return Collections.emptyList();
+        }
+        return storeRepository.searchNearby(criteria);
+    }
+
+    List<SearchResultDto> searchWithPostgis(NearbySearchCriteria criteria) {
+        if (!applyProductFilter(criteria)) {
+            return Collections.emptyList();
+        }
+        return storeRepository.searchNearbyPostgis(criteria);
+    }
+
+    // Narrows to the stores inside the radius first, so inventory is joined for those stores only;
+    // false means no store is in range
+    private boolean applyStoreFilter(NearbySearchCriteria criteria) {
+        if (!storeLocationIndex.isLoaded()) {
+            return true;
+        }
+        List<Long> storeIds = storeLocationIndex.findStoreIdsWithinRadius(
+                criteria.getLat(), criteria.getLng(), criteria.getRadius());
+        if (storeIds.isEmpty()) {
+            return false;
+        }
+        if (storeIds.size() <= maxGridCandidates) {
+            criteria.setStoreIds(storeIds);
+        }
+        return true;
+    }
+
+    // Resolves the name match (and category) to product IDs up front; false means nothing can match
+    private boolean applyProductFilter(NearbySearchCriteria criteria) {
+        List<Long> productIds = findProductIds(criteria.getQuery(), criteria.getCategory());
+        if (productIds == null) {
+            return true;
+        }
+        if (productIds.isEmpty()) {
+            return false;
+        }
+        if (productIds.size() <= maxProductCandidates) {
+            criteria.setProductIds(productIds);
+        }
+        return true;
+    }
+
+    // Only the in-memory index resolves terms without a round trip each; otherwise the OR of LIKEs runs in SQL
+    private boolean applyBasketProductFilter(NearbySearchCriteria criteria, List<String> terms) {
+        if (!"memory".equalsIgnoreCase(productIndexBackend)) {
+            return true;
+        }
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (String term : terms) {
+            List<Long> termProductIds = productNameIndex.findProductIds(term);
+            if (termProductIds == null) {
+                return true;
+            }
+            productIds.addAll(termProductIds);
+        }
+        if (productIds.isEmpty()) {
+            return false;
+        }
+        if (productIds.size() <= maxProductCandidates) {
+            criteria.setProductIds(productIds);
+        }
+        return true;
+    }
+
+    // The in-memory index also applies the category, so it narrows the join before it runs;
+    // with pg_trgm the category stays a SQL predicate
+    private List<Long> findProductIds(String query, String category) {
+        if ("memory".equalsIgnoreCase(productIndexBackend)) {
+            List<Long> productIds = productNameIndex.findProductIds(query);
+            if (productIds != null && category != null) {
+                return productIds.stream().filter(productId -> productNameIndex.isInCategory(productId, category)).toList();
+            }
+            return productIds;
+        }
+        if ("pg_trgm".equalsIgnoreCase(productIndexBackend)) {
+            return productRepository.findIdsByNameContaining(query);
+        }
+        return null;
+    }
+
+    // Strong validator for the store details response. The date is part of it because
+    // isExpired/daysUntilExpiry change at midnight without any row changing; the write-behind
+    // revision because buffered updates haven't changed any row yet
+    public Optional<String> getStoreDetailsETag(Long storeId) {
+        List<Object[]> rows = storeRepository.findVersionById(storeId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] version = rows.get(0);
+        long revision = inventoryWriteBehind.getStoreRevision(storeId);
+        return Optional.of("\"" + storeId + "-" + epochMicros((LocalDateTime) version[0]) + "-"
+                + epochMicros((LocalDateTime) version[1]) + "-" + version[2] + "-" + LocalDate.now()
+                + (revision > 0 ? "-w" + revision : "") + "\"");
+    }
+
+    public Optional<StoreDetailsDto> getStoreDetails(Long storeId) {
+        List<Object[]> rows = storeRepository.findDetailsById(storeId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        List<InventoryDto> inventory = new ArrayList<>();
+        for (Object[] row : rows) {
+            if (row[5] != null) {
+                inventory.add(new InventoryDto((Long) row[5], (String) row[6], (String) row[7], (String) row[8],
+                        (String) row[9], (Integer) row[10], (BigDecimal) row[11], (LocalDate) row[12], (LocalDate) row[13]));
+            }
+        }
+        Object[] store = rows.get(0);
+        return Optional.of(new StoreDetailsDto((Long) store[0], (String) store[1], (String) store[2],
+                (Double) store[3], (Double) store[4], inventoryWriteBehind.overlay(storeId, inventory, true)));
+    }
+
+    private static long epochMicros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    // One keyset page of a store's inventory ordered by category, name and product ID
+    public InventoryPageDto getInventoryPage(Long storeId, boolean inStockOnly, String category, String query,
+                                             Integer size, String cursor) {
+        int pageSize = size == null ? defaultInventoryPageSize : Math.max(1, Math.min(size, maxInventoryPageSize));
+        InventoryPageCriteria criteria = new InventoryPageCriteria(storeId, inStockOnly);
+        criteria.setCategory(category == null || category.isBlank() ? null : category.trim());
+        criteria.setQuery(query == null || query.isBlank() ? null : query.trim());
+        if (cursor != null && !cursor.isBlank()) {
+            InventoryCursor after = InventoryCursor.decode(cursor);
+            criteria.setAfter(after.getCategory(), after.getName(), after.getProductId());
+        }
+        // One extra row tells whether another page exists
+        criteria.setLimit(pageSize + 1);
+
+        // As in searchPage: paging is decided on the stored rows, before the overlay can drop any
+        List<InventoryDto> items = inventoryRepository.findPage(criteria);
+        if (items.size() <= pageSize) {
+            return new InventoryPageDto(inventoryWriteBehind.overlay(storeId, items, inStockOnly), null);
+        }
+        List<InventoryDto> page = new ArrayList<>(items.subList(0, pageSize));
+        String nextCursor = InventoryCursor.after(page.get(pageSize - 1)).encode();
+        return new InventoryPageDto(inventoryWriteBehind.overlay(storeId, page, inStockOnly), nextCursor);
+    }
+
+    public List<CategoryFacetDto> getInventoryCategories(Long storeId) {
+        List<CategoryFacetDto> categories = new ArrayList<>();
+        for (Object[] row : inventoryRepository.countInStockByCategory(storeId)) {
+            categories.add(new CategoryFacetDto((String) row[0], (Long) row[1]));
+        }
+        return categories;
     }
 
     public Optional<Store> getStoreById(Long storeId) {
@@ -29,6 +595,6 @@ public class StoreService {
     }
 
     public List<InventoryDto> getStoreInventory(Long storeId) {
-        return inventoryRepository.findByStoreIdWithProducts(storeId);
+        return inventoryWriteBehind.overlay(storeId, inventoryRepository.findByStoreIdWithProducts(storeId), true);
     }
 }
@@ -0,0 +1,263 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryChangeDto;
+import com.example.shopit.dto.StoreDetailsDto;
+import com.example.shopit.event.InventoryFeedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Live stock for open store pages over SSE: one snapshot per connection, then the store's changes from the
+// inventory feed. Each store has one subscription shared by its connections; writes go through a small
+// shared pool, so connections don't hold threads and a slow client only delays itself
+@Component
+public class StoreStreamHub {
+
+    private static final String HEARTBEAT = "heartbeat";
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private StoreDetailsCache storeDetailsCache;
+
+    @Value("${shopit.store-stream.max-connections:10000}")
+    private int maxConnections;
+
+    // Clients reconnect after this and get a fresh snapshot
+    @Value("${shopit.store-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // A connection this far behind is closed rather than buffered without limit
+    @Value("${shopit.store-stream.max-queued-events:100}")
+    private int maxQueuedEvents;
+
+    @Value("${shopit.store-stream.send-threads:4}")
+    private int sendThreads;
+
+    private final Map<Long, Set<Connection>> stores = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private ExecutorService sender;
+
+    private final class Connection {
+        private final Long storeId;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedDeque<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Changes queue up until the snapshot is in front of them
+        private volatile boolean ready;
+
+        private Connection(Long storeId, SseEmitter emitter) {
+            this.storeId = storeId;
+            this.emitter = emitter;
+        }
+
+        private void start(Set<ResponseBodyEmitter.DataWithMediaType> snapshot) {
+            queue.addFirst(snapshot);
+            queued.incrementAndGet();
+            ready = true;
+            schedule();
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueuedEvents) {
+                close();
+                return;
+            }
+            queue.addLast(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (ready && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException e) {
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed.get() && (event = queue.pollFirst()) != null) {
+                    queued.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (Exception e) {
+                // Client went away; the emitter callbacks may not fire for a failed write
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An event offered after the loop ended but before draining was cleared
+            schedule();
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                // Already completed
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(Math.max(1, sendThreads), runnable -> {
+            Thread thread = new Thread(runnable, "store-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Set<Connection> connections : stores.values()) {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        sender.shutdownNow();
+    }
+
+    // Empty when the store doesn't exist; IllegalStateException when this node is at its connection limit
+    public Optional<SseEmitter> open(Long storeId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new IllegalStateException("Too many live connections, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(storeId, emitter);
+        // Subscribed before the snapshot is read, so no change can fall between the two
+        stores.compute(storeId, (id, connections) -> {
+            Set<Connection> set = connections == null ? ConcurrentHashMap.newKeySet() : connections;
+            set.add(connection);
+            return set;
+        });
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+
+        try {
+            Optional<byte[]> snapshot = snapshot(storeId);
+            if (snapshot.isEmpty()) {
+                connection.close();
+                return Optional.empty();
+            }
+            connection.start(SseEmitter.event()
+                    .name("snapshot")
+                    .data(new String(snapshot.get(), StandardCharsets.UTF_8), MediaType.APPLICATION_JSON)
+                    .build());
+            return Optional.of(emitter);
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    // The store details payload, from the same cache the polling endpoint serves
+    private Optional<byte[]> snapshot(Long storeId) {
+        StoreDetailsCache.Entry cached = storeDetailsCache.get(storeId);
+        if (cached != null) {
+            return Optional.of(cached.json());
+        }
+        long version = storeDetailsCache.currentVersion(storeId);
+        Optional<String> eTag = storeService.getStoreDetailsETag(storeId);
+        if (eTag.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<StoreDetailsDto> details = storeService.getStoreDetails(storeId);
+        if (details.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(storeDetailsCache.put(storeId, version, eTag.get(), details.get()).json());
+    }
+
+    // Changes are absolute values in feed order, so one already in the snapshot is harmless to apply again
+    @EventListener
+    public void onInventoryFeed(InventoryFeedEvent event) {
+        if (stores.isEmpty()) {
+            return;
+        }
+        Map<Long, List<InventoryChangeDto>> byStore = new HashMap<>();
+        for (InventoryChangeDto change : event.getChanges()) {
+            if (stores.containsKey(change.getStoreId())) {
+                byStore.computeIfAbsent(change.getStoreId(), id -> new ArrayList<>()).add(change);
+            }
+        }
+        byStore.forEach((storeId, changes) -> {
+            Set<Connection> connections = stores.get(storeId);
+            if (connections == null) {
+                return;
+            }
+            // Built once and shared; a builder can only be built once
+            Set<ResponseBodyEmitter.DataWithMediaType> delta = SseEmitter.event()
+                    .name("inventory")
+                    .id(Long.toString(changes.get(changes.size() - 1).getSeq()))
+                    .data(changes, MediaType.APPLICATION_JSON)
+                    .build();
+            for (Connection connection : connections) {
+                connection.offer(delta);
+            }
+        });
+    }
+
+    // Keeps idle connections open through proxies, and finds clients that have gone away
+    @Scheduled(fixedDelayString = "${shopit.store-stream.heartbeat-interval-ms:15000}",
+            initialDelayString = "${shopit.store-stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment(HEARTBEAT).build();
+        for (Set<Connection> connections : stores.values()) {
+            for (Connection connection : connections) {
+                connection.offer(heartbeat);
+            }
+        }
+    }
+
+    private void remove(Connection connection) {
+        stores.computeIfPresent(connection.storeId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        connectionCount.decrementAndGet();
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SuggestionDto;
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.repository.InventoryRepository;
+import com.example.shopit.repository.ProductRepository;
+import com.example.shopit.repository.SearchHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Prefix trie over product names and categories; every node keeps its best completions precomputed
+@Component
+public class SuggestionIndex {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private StoreLocationIndex storeLocationIndex;
+
+    @Value("${shopit.suggest.max-results:10}")
+    private int maxResults;
+
+    @Value("${shopit.suggest.history-days:30}")
+    private int historyDays;
+
+    @Value("${shopit.suggest.refresh-ms:300000}")
+    private long refreshMs;
+
+    private volatile Trie trie;
+    private volatile boolean stale;
+    private volatile long builtAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Catalog changes only mark the trie stale; the rebuild runs here, off the request threads
+    @Scheduled(fixedDelayString = "${shopit.suggest.check-ms:10000}",
+            initialDelayString = "${shopit.suggest.check-ms:10000}")
+    public void refreshIfStale() {
+        if (stale || System.currentTimeMillis() - builtAt >= refreshMs) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        stale = false;
+        long startedAt = System.currentTimeMillis();
+
+        Map<Long, Long> stockingStores = new HashMap<>();
+        Map<Long, List<Long>> productsByStore = new HashMap<>();
+        for (Object[] row : inventoryRepository.findInStockStoreProductPairs()) {
+            stockingStores.merge((Long) row[1], 1L, Long::sum);
+            productsByStore.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Long) row[1]);
+        }
+
+        // Same text from several products (or a name equal to a category) collapses into one weighted term
+        Map<String, Term> terms = new LinkedHashMap<>();
+        Map<Long, Term[]> productTerms = new HashMap<>();
+        for (Object[] row : productRepository.findAllNamesAndCategories()) {
+            long weight = stockingStores.getOrDefault((Long) row[0], 0L);
+            productTerms.put((Long) row[0], new Term[] {
+                    addTerm(terms, (String) row[1], "product", weight),
+                    addTerm(terms, (String) row[2], "category", weight)});
+        }
+
+        // Recent searches for exactly a product name or category count towards that term;
+        // other search terms aren't offered, they may not match anything
+        for (Object[] row : searchHistoryRepository.countSearchTermsSince(LocalDateTime.now().minusDays(historyDays))) {
+            for (String type : new String[] {"product", "category"}) {
+                Term term = terms.get(type + ':' + row[0]);
+                if (term != null) {
+                    term.weight += (Long) row[1];
+                }
+            }
+        }
+
+        trie = new Trie(new ArrayList<>(terms.values()), productsByStore, productTerms, maxResults);
+        builtAt = startedAt;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        stale = true;
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return suggest(prefix, null, null, null, limit);
+    }
+
+    // With a position, only terms stocked by stores within the radius are offered, weighted by how many of
+    // those stores stock them; without one (or before the store grid loads) the global weights apply
+    public List<SuggestionDto> suggest(String prefix, Double lat, Double lng, Double radiusKm, int limit) {
+        Trie current = trie;
+        if (current == null || prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        int count = Math.min(limit, maxResults);
+        if (lat == null || lng == null || radiusKm == null || !storeLocationIndex.isLoaded()) {
+            return current.complete(key, count);
+        }
+        return current.completeNearby(key, storeLocationIndex.findStoreIdsWithinRadius(lat, lng, radiusKm), count);
+    }
+
+    private static Term addTerm(Map<String, Term> terms, String text, String type, long weight) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String trimmed = text.trim();
+        Term term = terms.computeIfAbsent(type + ':' + trimmed.toLowerCase(Locale.ROOT),
+                k -> new Term(trimmed, type));
+        term.weight += weight;
+        return term;
+    }
+
+    private static final class Term {
+        private final String text;
+        private final String type;
+        private long weight;
+        // Position in the trie's rank order
+        private int index;
+
+        private Term(String text, String type) {
+            this.text = text;
+            this.type = type;
+        }
+    }
+
+    private static final class Trie {
+        private final String[] texts;
+        private final String[] types;
+        private final long[] weights;
+        private final String[] keys;
+        // Indexes of the terms each store has in stock
+        private final Map<Long, int[]> storeTerms = new HashMap<>();
+        private final Node root;
+
+        private Trie(List<Term> terms, Map<Long, List<Long>> productsByStore, Map<Long, Term[]> productTerms,
+                     int maxResults) {
+            // Term indexes are assigned in rank order, so a node's top list is just its smallest indexes
+            terms.sort(Comparator.comparingLong((Term t) -> t.weight).reversed()
+                    .thenComparing(t -> t.text, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(t -> t.type));
+            texts = new String[terms.size()];
+            types = new String[terms.size()];
+            weights = new long[terms.size()];
+            keys = new String[terms.size()];
+
+            Builder rootBuilder = new Builder();
+            for (int i = 0; i < terms.size(); i++) {
+                Term term = terms.get(i);
+                term.index = i;
+                texts[i] = term.text;
+                types[i] = term.type;
+                weights[i] = term.weight;
+
+                Builder node = rootBuilder;
+                String key = term.text.toLowerCase(Locale.ROOT);
+                keys[i] = key;
+                for (int c = 0; c < key.length(); c++) {
+                    node = node.children.computeIfAbsent(key.charAt(c), k -> new Builder());
+                }
+                node.terms.add(i);
+            }
+            root = rootBuilder.freeze(maxResults);
+
+            productsByStore.forEach((storeId, productIds) -> {
+                Set<Integer> indexes = new HashSet<>();
+                for (Long productId : productIds) {
+                    for (Term term : productTerms.getOrDefault(productId, new Term[0])) {
+                        if (term != null) {
+                            indexes.add(term.index);
+                        }
+                    }
+                }
+                storeTerms.put(storeId, indexes.stream().mapToInt(Integer::intValue).toArray());
+            });
+        }
+
+        private List<SuggestionDto> complete(String prefix, int limit) {
+            Node node = root;
+            for (int c = 0; c < prefix.length(); c++) {
+                int child = Arrays.binarySearch(node.labels, prefix.charAt(c));
+                if (child < 0) {
+                    return List.of();
+                }
+                node = node.children[child];
+            }
+
+            int count = Math.min(limit, node.top.length);
+            List<SuggestionDto> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int term = node.top[i];
+                suggestions.add(new SuggestionDto(texts[term], types[term], weights[term]));
+            }
+            return suggestions;
+        }
+
+        // Counts nearby stores per matching term; ties keep the global rank order
+        private List<SuggestionDto> completeNearby(String prefix, List<Long> storeIds, int limit) {
+            Map<Integer, Long> nearbyStores = new HashMap<>();
+            for (Long storeId : storeIds) {
+                for (int term : storeTerms.getOrDefault(storeId, new int[0])) {
+                    if (keys[term].startsWith(prefix)) {
+                        nearbyStores.merge(term, 1L, Long::sum);
+                    }
+                }
+            }
+
+            return nearbyStores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(e -> new SuggestionDto(texts[e.getKey()], types[e.getKey()], e.getValue()))
+                    .toList();
+        }
+    }
+
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private final List<Integer> terms = new ArrayList<>(1);
+
+        private Node freeze(int maxResults) {
+            char[] labels = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int[] top = terms.stream().mapToInt(Integer::intValue).toArray();
+
+            int i = 0;
+            for (Map.Entry<Character, Builder> child : children.entrySet()) {
+                labels[i] = child.getKey();
+                frozen[i] = child.getValue().freeze(maxResults);
+                top = mergeTop(top, frozen[i].top, maxResults);
+                i++;
+            }
+            return new Node(labels, frozen, top);
+        }
+
+        // Both inputs are ascending term indexes, i.e. best first
+        private static int[] mergeTop(int[] a, int[] b, int maxResults) {
+            int[] merged = new int[Math.min(a.length + b.length, maxResults)];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < merged.length; k++) {
+                merged[k] = j >= b.length || (i < a.length && a[i] < b[j]) ? a[i++] : b[j++];
+            }
+            return merged;
+        }
+    }
+
+    private record Node(char[] labels, Node[] children, int[] top) {
+    }
+}
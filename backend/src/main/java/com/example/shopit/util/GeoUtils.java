@@ -0,0 +1,34 @@
+package com.example.shopit.util;
+
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+    private static final double BOUNDING_MARGIN = 1e-5;
+
+    private GeoUtils() {
+    }
+
+    // Same spherical law of cosines as the search queries, so Java and SQL agree on what "inside" means
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double cosine = Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.cos(Math.toRadians(lng2) - Math.toRadians(lng1))
+                + Math.sin(Math.toRadians(lat1)) * Math.sin(Math.toRadians(lat2));
+        return EARTH_RADIUS_KM * Math.acos(Math.min(1.0, Math.max(-1.0, cosine)));
+    }
+
+    public static double latitudeDeltaDegrees(double radiusKm) {
+        return radiusKm / KM_PER_DEGREE;
+    }
+
+    public static double longitudeDeltaDegrees(double lat, double radiusKm) {
+        double edgeLat = Math.min(89.999, Math.abs(lat) + latitudeDeltaDegrees(radiusKm));
+        return Math.min(180.0, radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(edgeLat))));
+    }
+
+    // Sphere distance for index-backed geography ST_DWithin. PostGIS's sphere is a few metres per
+    // thousand km larger than EARTH_RADIUS_KM, so pad enough to keep stores right on the radius
+    public static double boundingMetres(double radiusKm) {
+        return radiusKm * 1000 * (1 + BOUNDING_MARGIN);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.shopit.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    // Java equivalent of lower(name) LIKE lower(concat('%', term, '%')) with PostgreSQL's default '\' escape
+    public static boolean containsLike(String name, String term) {
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        String lowerTerm = term.toLowerCase(Locale.ROOT);
+        if (lowerTerm.indexOf('%') < 0 && lowerTerm.indexOf('_') < 0 && lowerTerm.indexOf('\\') < 0) {
+            return lowerName.contains(lowerTerm);
+        }
+        return toRegex(lowerTerm).matcher(lowerName).find();
+    }
+
+    // The term as a literal inside a LIKE pattern with ESCAPE '\'
+    public static String escape(String term) {
+        StringBuilder escaped = new StringBuilder(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static Pattern toRegex(String term) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '\\' && i + 1 < term.length()) {
+                regex.append(Pattern.quote(String.valueOf(term.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.shopit.repository;
+
+import com.example.shopit.dto.InventoryDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryRepositoryImplTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void searchTextIsBoundAsALiteralLikePattern() {
+		EntityManager entityManager = mock(EntityManager.class);
+		TypedQuery<InventoryDto> query = mock(TypedQuery.class);
+		when(entityManager.createQuery(anyString(), eq(InventoryDto.class))).thenReturn(query);
+		when(query.getResultList()).thenReturn(List.of());
+		InventoryRepositoryImpl repository = new InventoryRepositoryImpl();
+		ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+
+		InventoryPageCriteria criteria = new InventoryPageCriteria(1L, false);
+		criteria.setQuery("50%_off\\");
+		repository.findPage(criteria);
+
+		ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+		verify(entityManager).createQuery(jpql.capture(), eq(InventoryDto.class));
+		assertTrue(jpql.getValue().contains("LIKE lower(concat('%', :query, '%')) ESCAPE '\\'"));
+		// Without escaping, '%' and '_' would be wildcards and the trailing '\' an invalid pattern
+		verify(query).setParameter("query", "50\\%\\_off\\\\");
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.shopit.service;
+
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FuzzyTermIndexTests {
+
+	private FuzzyTermIndex index;
+	private ProductRepository productRepository;
+
+	@BeforeEach
+	void setUp() {
+		productRepository = mock(ProductRepository.class);
+		when(productRepository.findAllNames()).thenReturn(List.of(
+				new Object[] {1L, "Basmati Rice"},
+				new Object[] {2L, "Brown Rice"},
+				new Object[] {3L, "Toned Milk"},
+				new Object[] {4L, "Whole Wheat Atta"}));
+		index = new FuzzyTermIndex();
+		ReflectionTestUtils.setField(index, "productRepository", productRepository);
+		ReflectionTestUtils.setField(index, "maxEditDistance", 2);
+		ReflectionTestUtils.setField(index, "maxSuggestions", 3);
+		ReflectionTestUtils.setField(index, "maxQueryLength", 100);
+		index.rebuild();
+	}
+
+	@Test
+	void correctsMisspelledToken() {
+		assertEquals(List.of("basmati rice"), index.expand("basmtai rice"));
+		assertEquals(List.of("milk"), index.expand("mlk"));
+	}
+
+	@Test
+	void knownTokensAreNotExpanded() {
+		assertTrue(index.expand("brown rice").isEmpty());
+	}
+
+	@Test
+	void laterUnknownTokensTakeTheirBestMatch() {
+		assertEquals(List.of("wheat atta"), index.expand("wheet attta"));
+	}
+
+	@Test
+	void unmatchableTokenGivesNoCorrection() {
+		assertTrue(index.expand("xyzzyq").isEmpty());
+	}
+
+	@Test
+	void tokensOverTheLengthLimitAreLeftAsTyped() {
+		String longToken = "r".repeat(FuzzyTermIndex.MAX_TOKEN_LENGTH + 1);
+		assertTrue(index.expand(longToken).isEmpty());
+		// Only the short misspelling is corrected; the long token passes through untouched
+		assertEquals(List.of("milk " + longToken), index.expand("mlk " + longToken));
+	}
+
+	@Test
+	void queriesOverTheLengthLimitAreNotCorrected() {
+		String query = "mlk ".repeat(30);
+		assertFalse(index.isCorrectable(query));
+		assertTrue(index.expand(query).isEmpty());
+	}
+
+	@Test
+	void productChangesUpdateTheDictionary() {
+		index.onProductChanged(new ProductChangedEvent(5L, "Paneer", "Dairy", null, false));
+		assertEquals(List.of("paneer"), index.expand("panner"));
+
+		index.onProductChanged(new ProductChangedEvent(5L, null, null, null, true));
+		assertTrue(index.expand("panner").isEmpty());
+	}
+
+	@Test
+	void productChangedDuringRebuildIsKept() {
+		// The table was read before these committed; their after-commit events land mid-rebuild
+		when(productRepository.findAllNames()).thenAnswer(invocation -> {
+			index.onProductChanged(new ProductChangedEvent(5L, "Paneer", "Dairy", null, false));
+			index.onProductChanged(new ProductChangedEvent(3L, null, null, null, true));
+			List<Object[]> rows = new ArrayList<>();
+			rows.add(new Object[] {3L, "Toned Milk"});
+			return rows;
+		});
+		index.rebuild();
+
+		assertEquals(List.of("paneer"), index.expand("panner"));
+		assertTrue(index.expand("mlk").isEmpty());
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryDto;
+import com.example.shopit.repository.InventoryPageCriteria;
+import com.example.shopit.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Cursors come back from the client, so a tampered one has to be refused before it reaches the listing query
+class InventoryCursorTests {
+
+	private InventoryRepository inventoryRepository;
+	private StoreService storeService;
+
+	@BeforeEach
+	void setUp() {
+		inventoryRepository = mock(InventoryRepository.class);
+		when(inventoryRepository.findPage(any())).thenReturn(new ArrayList<>());
+		storeService = new StoreService();
+		ReflectionTestUtils.setField(storeService, "inventoryRepository", inventoryRepository);
+		ReflectionTestUtils.setField(storeService, "inventoryWriteBehind", mock(InventoryWriteBehind.class));
+		ReflectionTestUtils.setField(storeService, "defaultInventoryPageSize", 2);
+		ReflectionTestUtils.setField(storeService, "maxInventoryPageSize", 10);
+	}
+
+	@Test
+	void tamperedCursorsAreRejectedWithoutQuerying() {
+		for (String cursor : new String[] {
+				"not base64!",
+				encodeRaw("Dairy\u0000Milk"),
+				encodeRaw("Dairy\u0000Milk\u0000x"),
+				encodeRaw("Dairy\u0000Milk\u000042\u0000extra"),
+				encodeRaw("Dairy\u0000Milk\u00009999999999999999999999")}) {
+			assertThrows(IllegalArgumentException.class,
+					() -> storeService.getInventoryPage(1L, false, null, null, null, cursor), cursor);
+		}
+		verify(inventoryRepository, never()).findPage(any());
+	}
+
+	@Test
+	void cursorAfterAnUncategorisedItemResumesAtTheEmptyCategory() {
+		// The listing orders null categories as ''; the cursor must use the same key or the next page restarts
+		InventoryDto salt = new InventoryDto(7L, "Salt", null, null, null, 1, new BigDecimal("1.00"), null, null);
+		storeService.getInventoryPage(1L, false, null, null, null, InventoryCursor.after(salt).encode());
+
+		InventoryPageCriteria criteria = capturedCriteria();
+		assertEquals("", criteria.getAfterCategory());
+		assertEquals("Salt", criteria.getAfterName());
+		assertEquals(7L, criteria.getAfterProductId());
+	}
+
+	@Test
+	void pageSizeIsClampedToTheConfiguredRange() {
+		storeService.getInventoryPage(1L, false, null, null, 10_000, null);
+		assertEquals(11, capturedCriteria().getLimit());
+	}
+
+	private InventoryPageCriteria capturedCriteria() {
+		ArgumentCaptor<InventoryPageCriteria> criteria = ArgumentCaptor.forClass(InventoryPageCriteria.class);
+		verify(inventoryRepository).findPage(criteria.capture());
+		return criteria.getValue();
+	}
+
+	private static String encodeRaw(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,149 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryDeltaResultDto;
+import com.example.shopit.entity.Inventory;
+import com.example.shopit.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest
+class InventoryDeltaConcurrencyTests {
+
+	private static final int THREADS = 8;
+	private static final int OPERATIONS_PER_THREAD = 100;
+
+	@Autowired
+	private StoreManagementService storeManagementService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	private Long storeId;
+	private Long productId;
+	private int originalQuantity;
+
+	// Borrows an existing item and puts its quantity back afterwards
+	@BeforeEach
+	void pickInventoryItem() {
+		List<Inventory> items = inventoryRepository.findAll(PageRequest.of(0, 1)).getContent();
+		assumeTrue(!items.isEmpty(), "needs at least one inventory row");
+		Inventory item = items.get(0);
+		storeId = item.getStore().getId();
+		productId = item.getProduct().getId();
+		originalQuantity = item.getQuantity();
+	}
+
+	@AfterEach
+	void restoreQuantity() {
+		if (storeId != null) {
+			setQuantity(originalQuantity);
+		}
+	}
+
+	@Test
+	void parallelIncrementsAndDecrementsLoseNoUpdates() throws Exception {
+		setQuantity(1000);
+
+		// Half the threads add 3 per call, half take 1; a lost update would leave the total off
+		List<Integer> applied = runInParallel(thread -> {
+			int delta = thread % 2 == 0 ? 3 : -1;
+			int count = 0;
+			for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+				if (storeManagementService.applyQuantityDelta(storeId, productId, delta, true).isApplied()) {
+					count++;
+				}
+			}
+			return count;
+		});
+
+		applied.forEach(count -> assertEquals(OPERATIONS_PER_THREAD, count));
+		int expected = 1000 + (THREADS / 2) * OPERATIONS_PER_THREAD * 3 - (THREADS / 2) * OPERATIONS_PER_THREAD;
+		assertEquals(expected, currentQuantity());
+	}
+
+	@Test
+	void parallelDecrementsNeverOversell() throws Exception {
+		int stock = 50;
+		setQuantity(stock);
+
+		// THREADS * OPERATIONS_PER_THREAD sales of one unit compete for 50 units
+		List<Integer> sold = runInParallel(thread -> {
+			int count = 0;
+			for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+				if (storeManagementService.applyQuantityDelta(storeId, productId, -1, true).isApplied()) {
+					count++;
+				}
+			}
+			return count;
+		});
+
+		assertEquals(stock, sold.stream().mapToInt(Integer::intValue).sum());
+		assertEquals(0, currentQuantity());
+	}
+
+	@Test
+	void decrementWithoutFloorStopsAtZero() {
+		setQuantity(2);
+
+		InventoryDeltaResultDto result = storeManagementService.applyQuantityDelta(storeId, productId, -5, false);
+
+		assertEquals(true, result.isApplied());
+		assertEquals(0, result.getQuantity());
+		assertEquals(true, result.isClamped());
+		assertEquals(-2, result.getAppliedDelta());
+		assertEquals(false, storeManagementService.applyQuantityDelta(storeId, productId, -1, true).isApplied());
+	}
+
+	private interface Worker {
+		int run(int thread) throws Exception;
+	}
+
+	// Starts all workers together so their updates actually overlap
+	private List<Integer> runInParallel(Worker worker) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				Callable<Integer> task = () -> {
+					start.await();
+					return worker.run(thread);
+				};
+				futures.add(executor.submit(task));
+			}
+			start.countDown();
+
+			List<Integer> results = new ArrayList<>();
+			for (Future<Integer> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void setQuantity(int quantity) {
+		storeManagementService.applyQuantityDelta(storeId, productId, quantity - currentQuantity(), false);
+	}
+
+	private int currentQuantity() {
+		return inventoryRepository.findByStoreIdAndProductId(storeId, productId).orElseThrow().getQuantity();
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryDto;
+import com.example.shopit.dto.InventoryPageDto;
+import com.example.shopit.dto.SearchPageDto;
+import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.repository.InventoryRepository;
+import com.example.shopit.repository.NearbySearchCriteria;
+import com.example.shopit.repository.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Buffered (write-behind) values are overlaid on listing pages; a row the overlay drops must not end the paging
+class InventoryWriteBehindPagingTests {
+
+	private static final long STORE_ID = 1L;
+
+	private InventoryWriteBehind writeBehind;
+	private InventoryRepository inventoryRepository;
+	private StoreRepository storeRepository;
+	private SearchResultCache searchResultCache;
+	private StoreService storeService;
+
+	@BeforeEach
+	void setUp() {
+		writeBehind = new InventoryWriteBehind();
+		ReflectionTestUtils.setField(writeBehind, "storeDetailsCache", mock(StoreDetailsCache.class));
+		ReflectionTestUtils.setField(writeBehind, "stripes", 4);
+		ReflectionTestUtils.setField(writeBehind, "maxPending", 1000);
+		writeBehind.init();
+
+		inventoryRepository = mock(InventoryRepository.class);
+		storeRepository = mock(StoreRepository.class);
+		searchResultCache = mock(SearchResultCache.class);
+		storeService = new StoreService();
+		ReflectionTestUtils.setField(storeService, "inventoryRepository", inventoryRepository);
+		ReflectionTestUtils.setField(storeService, "storeRepository", storeRepository);
+		ReflectionTestUtils.setField(storeService, "searchResultCache", searchResultCache);
+		ReflectionTestUtils.setField(storeService, "inventoryWriteBehind", writeBehind);
+		ReflectionTestUtils.setField(storeService, "searchHistoryRecorder", mock(SearchHistoryRecorder.class));
+		ReflectionTestUtils.setField(storeService, "defaultInventoryPageSize", 2);
+		ReflectionTestUtils.setField(storeService, "maxInventoryPageSize", 10);
+		ReflectionTestUtils.setField(storeService, "defaultLimit", 2);
+		ReflectionTestUtils.setField(storeService, "maxLimit", 10);
+		ReflectionTestUtils.setField(storeService, "searchMode", "postgis");
+	}
+
+	@Test
+	void inventoryPageKeepsCursorWhenOverlayDropsLastRow() {
+		when(inventoryRepository.findPage(any())).thenReturn(new ArrayList<>(List.of(item(10L, "Apple", 5),
+				item(11L, "Bread", 5), item(12L, "Milk", 5))));
+		writeBehind.update(STORE_ID, 11L, 0, null);
+
+		InventoryPageDto page = storeService.getInventoryPage(STORE_ID, true, null, null, null, null);
+
+		assertEquals(List.of(10L), page.getItems().stream().map(InventoryDto::getId).toList());
+		assertNotNull(page.getNextCursor());
+		// The next page starts after Bread, the last stored row of this one, so Milk isn't skipped
+		InventoryCursor cursor = InventoryCursor.decode(page.getNextCursor());
+		assertEquals("Bread", cursor.getName());
+		assertEquals(11L, cursor.getProductId());
+	}
+
+	@Test
+	void inventoryPageOverlaysPendingValues() {
+		when(inventoryRepository.findPage(any())).thenReturn(new ArrayList<>(List.of(item(10L, "Apple", 5))));
+		writeBehind.update(STORE_ID, 10L, 42, new BigDecimal("9.50"));
+
+		InventoryPageDto page = storeService.getInventoryPage(STORE_ID, false, null, null, null, null);
+
+		assertNull(page.getNextCursor());
+		assertEquals(42, page.getItems().get(0).getQuantity());
+		assertEquals(new BigDecimal("9.50"), page.getItems().get(0).getPrice());
+	}
+
+	@Test
+	void searchPageKeepsCursorWhenOverlayDropsRows() {
+		when(storeRepository.searchNearbyPostgis(any())).thenReturn(new ArrayList<>(List.of(row(1L, 100L, 0.5),
+				row(1L, 101L, 0.5), row(2L, 100L, 1.5))));
+		writeBehind.update(1L, 100L, 0, null);
+		writeBehind.update(1L, 101L, 0, null);
+
+		String start = new SearchCursor(100L, 0L, 0L).encode();
+		SearchPageDto page = storeService.searchNearbyStores("milk", null, 19.0, 72.8, 5.0, 2, start, null, false);
+
+		assertEquals(0, page.getResults().size());
+		assertNotNull(page.getNextCursor());
+		SearchCursor next = SearchCursor.decode(page.getNextCursor());
+		assertEquals(101L, next.getProductId());
+
+		ArgumentCaptor<NearbySearchCriteria> criteria = ArgumentCaptor.forClass(NearbySearchCriteria.class);
+		verify(storeRepository).searchNearbyPostgis(criteria.capture());
+		assertEquals(3, criteria.getValue().getLimit());
+	}
+
+	@Test
+	void searchWithoutLimitIsCappedAtTheDefaultLimit() {
+		when(storeRepository.searchNearbyPostgis(any())).thenReturn(new ArrayList<>(List.of(row(1L, 100L, 0.5),
+				row(1L, 101L, 0.5), row(2L, 100L, 1.5))));
+
+		SearchPageDto page = storeService.searchNearbyStores("milk", null, 19.0, 72.8, 5.0, null, null, null, false);
+
+		assertEquals(2, page.getResults().size());
+		assertNotNull(page.getNextCursor());
+		ArgumentCaptor<NearbySearchCriteria> criteria = ArgumentCaptor.forClass(NearbySearchCriteria.class);
+		verify(storeRepository).searchNearbyPostgis(criteria.capture());
+		assertEquals(3, criteria.getValue().getLimit());
+	}
+
+	@Test
+	void facetsCountEveryMatchInTheSameQueryAsThePage() {
+		when(storeRepository.searchNearbyPostgis(any())).thenReturn(new ArrayList<>(List.of(row(1L, 100L, 0.5),
+				row(1L, 101L, 0.5), row(2L, 100L, 1.5))));
+
+		SearchPageDto page = storeService.searchNearbyStores("milk", null, 19.0, 72.8, 5.0, 1, null, null, true);
+
+		assertEquals(1, page.getResults().size());
+		assertNotNull(page.getNextCursor());
+		assertEquals(1, page.getFacets().size());
+		assertEquals(3L, page.getFacets().get(0).getCount());
+		verify(storeRepository).searchNearbyPostgis(any());
+	}
+
+	private static InventoryDto item(Long productId, String name, int quantity) {
+		return new InventoryDto(productId, name, null, "Groceries", null, quantity, new BigDecimal("1.00"), null, null);
+	}
+
+	private static SearchResultDto row(Long storeId, Long productId, double distanceKm) {
+		return new SearchResultDto(storeId, "Store " + storeId, null, 19.0, 72.8, productId, "Milk", "Dairy", 5,
+				new BigDecimal("1.00"), distanceKm);
+	}
+}
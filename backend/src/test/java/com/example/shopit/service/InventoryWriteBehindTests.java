@@ -0,0 +1,135 @@
+package com.example.shopit.service;
+
+import com.example.shopit.entity.Inventory;
+import com.example.shopit.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class InventoryWriteBehindTests {
+
+	private InventoryWriteBehind writeBehind;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		writeBehind = new InventoryWriteBehind();
+		jdbcTemplate = mock(JdbcTemplate.class);
+		ReflectionTestUtils.setField(writeBehind, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(writeBehind, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(writeBehind, "eventPublisher", mock(ApplicationEventPublisher.class));
+		ReflectionTestUtils.setField(writeBehind, "inventoryChangeOutbox", mock(InventoryChangeOutbox.class));
+		ReflectionTestUtils.setField(writeBehind, "storeDetailsCache", mock(StoreDetailsCache.class));
+		ReflectionTestUtils.setField(writeBehind, "stripes", 4);
+		ReflectionTestUtils.setField(writeBehind, "maxPending", 1000);
+		writeBehind.init();
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void updateInTransactionIsBufferedOnlyOnCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		writeBehind.updateAfterCommit(1L, 10L, 7, new BigDecimal("2.00"));
+		assertNull(writeBehind.get(1L, 10L));
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+		}
+		InventoryWriteBehind.Pending pending = writeBehind.get(1L, 10L);
+		assertNotNull(pending);
+		assertEquals(7, pending.getQuantity());
+	}
+
+	@Test
+	void rolledBackUpdateLeavesNothingPending() {
+		TransactionSynchronizationManager.initSynchronization();
+		writeBehind.updateAfterCommit(1L, 10L, 7, null);
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+		}
+		assertNull(writeBehind.get(1L, 10L));
+		assertEquals(0, writeBehind.getStoreRevision(1L));
+	}
+
+	@Test
+	void laterUpdateWithoutPriceKeepsPendingPrice() {
+		writeBehind.updateAfterCommit(1L, 10L, 7, new BigDecimal("2.00"));
+		writeBehind.updateAfterCommit(1L, 10L, 3, null);
+
+		InventoryWriteBehind.Pending pending = writeBehind.get(1L, 10L);
+		assertEquals(3, pending.getQuantity());
+		assertEquals(new BigDecimal("2.00"), pending.getPrice());
+		assertEquals(2, writeBehind.getStoreRevision(1L));
+	}
+
+	@Test
+	void overlayInventoryCopiesPendingRowsWithoutTouchingEntities() {
+		Product product = new Product();
+		product.setId(10L);
+		Inventory stored = new Inventory(null, product, 5, new BigDecimal("1.00"));
+		writeBehind.update(1L, 10L, 8, null);
+
+		List<Inventory> overlaid = writeBehind.overlayInventory(1L, List.of(stored));
+
+		assertEquals(8, overlaid.get(0).getQuantity());
+		assertEquals(new BigDecimal("1.00"), overlaid.get(0).getPrice());
+		assertEquals(5, stored.getQuantity());
+		writeBehind.discard(1L, 10L);
+		assertSame(stored, writeBehind.overlayInventory(1L, List.of(stored)).get(0));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void flushStampsRowsWithFlushTime() throws Exception {
+		writeBehind.update(1L, 10L, 8, null);
+		LocalDateTime buffered = writeBehind.get(1L, 10L).getUpdatedAt();
+		Thread.sleep(5);
+
+		writeBehind.flush();
+
+		ArgumentCaptor<Collection<Map.Entry<?, InventoryWriteBehind.Pending>>> batch = ArgumentCaptor.forClass(Collection.class);
+		ArgumentCaptor<ParameterizedPreparedStatementSetter<Map.Entry<?, InventoryWriteBehind.Pending>>> setter =
+				ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), anyInt(), setter.capture());
+		PreparedStatement statement = mock(PreparedStatement.class);
+		setter.getValue().setValues(statement, batch.getValue().iterator().next());
+		ArgumentCaptor<Timestamp> lastUpdated = ArgumentCaptor.forClass(Timestamp.class);
+		verify(statement).setTimestamp(eq(3), lastUpdated.capture());
+		assertFalse(lastUpdated.getValue().toLocalDateTime().isBefore(buffered.plusNanos(5_000_000)));
+		assertNull(writeBehind.get(1L, 10L));
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.ProductPageDto;
+import com.example.shopit.dto.ProductSummaryDto;
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.repository.ProductCatalogCriteria;
+import com.example.shopit.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The catalog cursor is client input and part of the cache key
+class ProductCursorTests {
+
+	private ProductRepository productRepository;
+	private ProductCatalogService catalogService;
+
+	@BeforeEach
+	void setUp() {
+		productRepository = mock(ProductRepository.class);
+		when(productRepository.findCatalogPage(any())).thenReturn(new ArrayList<>());
+		catalogService = new ProductCatalogService();
+		ReflectionTestUtils.setField(catalogService, "productRepository", productRepository);
+		ReflectionTestUtils.setField(catalogService, "defaultPageSize", 2);
+		ReflectionTestUtils.setField(catalogService, "maxPageSize", 10);
+		ReflectionTestUtils.setField(catalogService, "cacheEnabled", true);
+		ReflectionTestUtils.setField(catalogService, "maxEntries", 100L);
+		ReflectionTestUtils.setField(catalogService, "ttlSeconds", 300L);
+		catalogService.init();
+	}
+
+	@Test
+	void tamperedCursorsAreRejectedWithoutQuerying() {
+		for (String cursor : new String[] {
+				"not base64!",
+				encodeRaw("Butter"),
+				encodeRaw("Butter\u0000x"),
+				encodeRaw("Butter\u000042\u00007"),
+				encodeRaw("Butter\u0000")}) {
+			assertThrows(IllegalArgumentException.class,
+					() -> catalogService.getPage(null, null, null, null, cursor), cursor);
+		}
+		verify(productRepository, never()).findCatalogPage(any());
+	}
+
+	@Test
+	void nextPageResumesAfterTheLastProductOfTheCurrentOne() {
+		when(productRepository.findCatalogPage(any())).thenReturn(new ArrayList<>(List.of(
+				product(3L, "Amul Butter"), product(9L, "Amul Butter"), product(4L, "Bread"))));
+		ProductPageDto first = catalogService.getPage(null, null, null, null, null);
+
+		catalogService.getPage(null, null, null, null, first.getNextCursor());
+
+		ArgumentCaptor<ProductCatalogCriteria> criteria = ArgumentCaptor.forClass(ProductCatalogCriteria.class);
+		verify(productRepository, times(2)).findCatalogPage(criteria.capture());
+		// Same name on both rows: the id is what keeps the second one from being skipped or repeated
+		assertEquals("Amul Butter", criteria.getValue().getAfterName());
+		assertEquals(9L, criteria.getValue().getAfterProductId());
+	}
+
+	@Test
+	void productChangeDuringLoadIsNotCached() {
+		when(productRepository.findCatalogPage(any())).thenAnswer(invocation -> {
+			// Committed after the page was read but before it would have been cached
+			catalogService.onProductChanged(new ProductChangedEvent(5L, "Paneer", "Dairy", null, false));
+			return new ArrayList<>();
+		});
+		catalogService.getPage("pan", null, null, null, null);
+		catalogService.getPage("pan", null, null, null, null);
+
+		verify(productRepository, times(2)).findCatalogPage(any());
+	}
+
+	private static ProductSummaryDto product(Long id, String name) {
+		return new ProductSummaryDto(id, name, "Dairy", null);
+	}
+
+	private static String encodeRaw(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
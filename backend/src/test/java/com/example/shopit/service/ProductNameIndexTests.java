@@ -0,0 +1,72 @@
+package com.example.shopit.service;
+
+import com.example.shopit.event.ProductChangedEvent;
+import com.example.shopit.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductNameIndexTests {
+
+	private ProductNameIndex index;
+	private ProductRepository productRepository;
+
+	@BeforeEach
+	void setUp() {
+		productRepository = mock(ProductRepository.class);
+		when(productRepository.findNamesAndCategoriesAfter(anyLong())).thenReturn(rows());
+		index = new ProductNameIndex();
+		ReflectionTestUtils.setField(index, "productRepository", productRepository);
+		ReflectionTestUtils.setField(index, "catchUpMs", 0L);
+	}
+
+	@Test
+	void productCreatedDuringRebuildIsKept() {
+		// The table was read before the insert committed; its after-commit event lands mid-rebuild
+		when(productRepository.findAllNamesAndCategories()).thenAnswer(invocation -> {
+			index.onProductChanged(new ProductChangedEvent(2L, "Almond Milk", "Dairy", null, false));
+			return rows(new Object[] {1L, "Milk", "Dairy"});
+		});
+		index.rebuild();
+
+		assertEquals(List.of(1L, 2L), sorted(index.findProductIds("milk")));
+	}
+
+	@Test
+	void productDeletedDuringRebuildStaysDeleted() {
+		when(productRepository.findAllNamesAndCategories()).thenAnswer(invocation -> {
+			index.onProductChanged(new ProductChangedEvent(1L, null, null, null, true));
+			return rows(new Object[] {1L, "Milk", "Dairy"});
+		});
+		index.rebuild();
+
+		assertTrue(index.findProductIds("milk").isEmpty());
+	}
+
+	@Test
+	void productInsertedBySqlIsFoundBeforeTheNextRebuild() {
+		when(productRepository.findAllNamesAndCategories()).thenReturn(rows(new Object[] {5L, "Milk", "Dairy"}));
+		index.rebuild();
+		when(productRepository.findNamesAndCategoriesAfter(5L)).thenReturn(rows(new Object[] {6L, "Oat Milk", "Dairy"}));
+
+		assertEquals(List.of(5L, 6L), sorted(index.findProductIds("milk")));
+		assertTrue(index.isInCategory(6L, "Dairy"));
+	}
+
+	private static List<Long> sorted(List<Long> productIds) {
+		return productIds.stream().sorted().toList();
+	}
+
+	private static List<Object[]> rows(Object[]... rows) {
+		return new ArrayList<>(List.of(rows));
+	}
+}
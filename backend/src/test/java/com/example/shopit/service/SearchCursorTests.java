@@ -0,0 +1,63 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SearchResultDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCursorTests {
+
+	@Test
+	void encodeDecodeRoundTrips() {
+		SearchCursor cursor = SearchCursor.after(row(7L, 42L, 1.2345));
+		SearchCursor decoded = SearchCursor.decode(cursor.encode());
+		assertEquals(1234L, decoded.getDistanceKey());
+		assertEquals(7L, decoded.getStoreId());
+		assertEquals(42L, decoded.getProductId());
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encodeRaw("1:2")));
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(encodeRaw("x:2:3")));
+	}
+
+	@Test
+	void lastBitDistanceDifferencesDoNotSkipOrRepeatRows() {
+		// The same row as computed by the database and, one ulp off, by Java on a cached page
+		SearchResultDto fromDatabase = row(7L, 42L, 1.2345);
+		SearchResultDto recomputed = row(7L, 42L, Math.nextUp(1.2345));
+		SearchResultDto next = row(7L, 43L, Math.nextDown(1.2345));
+
+		SearchCursor cursor = SearchCursor.after(fromDatabase);
+		assertFalse(cursor.isBefore(recomputed));
+		assertTrue(cursor.isBefore(next));
+	}
+
+	@Test
+	void orderIsByMetreThenIds() {
+		List<SearchResultDto> rows = new ArrayList<>(List.of(row(2L, 1L, 0.5004), row(1L, 9L, 0.5001),
+				row(1L, 3L, 0.4999)));
+		rows.sort(SearchCursor.ORDER);
+		assertEquals(List.of(3L, 9L, 1L), rows.stream().map(SearchResultDto::getProductId).toList());
+	}
+
+	private static String encodeRaw(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static SearchResultDto row(Long storeId, Long productId, double distanceKm) {
+		return new SearchResultDto(storeId, "Store " + storeId, null, 19.0, 72.8, productId, "Milk", "Dairy", 5,
+				new BigDecimal("1.00"), distanceKm);
+	}
+}
@@ -0,0 +1,74 @@
+package com.example.shopit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchHistoryRecorderTests {
+
+	private SearchHistoryRecorder recorder;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		recorder = new SearchHistoryRecorder();
+		jdbcTemplate = mock(JdbcTemplate.class);
+		ReflectionTestUtils.setField(recorder, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(recorder, "enabled", true);
+		ReflectionTestUtils.setField(recorder, "queueCapacity", 10);
+		ReflectionTestUtils.setField(recorder, "batchSize", 10);
+		ReflectionTestUtils.setField(recorder, "flushIntervalMs", 10L);
+		ReflectionTestUtils.setField(recorder, "shutdownTimeoutMs", 5000L);
+	}
+
+	@Test
+	void positionsOutsideTheColumnRangesAreInvalid() {
+		assertTrue(SearchHistoryRecorder.isValidPosition(19.07, 72.87));
+		assertTrue(SearchHistoryRecorder.isValidPosition(-90.0, 180.0));
+		assertFalse(SearchHistoryRecorder.isValidPosition(120.0, 72.87));
+		assertFalse(SearchHistoryRecorder.isValidPosition(19.07, -1000.0));
+		assertFalse(SearchHistoryRecorder.isValidPosition(Double.NaN, 72.87));
+		assertFalse(SearchHistoryRecorder.isValidPosition(19.07, Double.POSITIVE_INFINITY));
+		assertFalse(SearchHistoryRecorder.isValidPosition(null, 72.87));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void invalidPositionIsRecordedWithoutCoordinates() throws Exception {
+		PreparedStatement statement = mock(PreparedStatement.class);
+		// The batch list is reused once written, so its rows are bound while the call is in progress
+		when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+				.thenAnswer(invocation -> {
+					Collection<Object> batch = invocation.getArgument(1);
+					assertEquals(1, batch.size());
+					ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+					setter.setValues(statement, batch.iterator().next());
+					return new int[][] {{1}};
+				});
+
+		recorder.start();
+		recorder.record(null, "milk", 120.0, 72.87);
+		recorder.stop();
+
+		verify(statement).setString(2, "milk");
+		verify(statement).setObject(3, null, Types.DOUBLE);
+		verify(statement).setObject(4, null, Types.DOUBLE);
+		assertEquals(1L, recorder.getStats().get("written"));
+	}
+}
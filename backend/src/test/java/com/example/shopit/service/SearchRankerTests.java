@@ -0,0 +1,100 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SearchResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchRankerTests {
+
+	private SearchRanker ranker;
+
+	@BeforeEach
+	void setUp() {
+		ranker = new SearchRanker();
+		ReflectionTestUtils.setField(ranker, "distanceWeight", 0.4);
+		ReflectionTestUtils.setField(ranker, "quantityWeight", 0.2);
+		ReflectionTestUtils.setField(ranker, "priceWeight", 0.2);
+		ReflectionTestUtils.setField(ranker, "matchWeight", 0.2);
+		ReflectionTestUtils.setField(ranker, "quantityHalfScore", 10.0);
+	}
+
+	@Test
+	void kLargerThanTheCandidateCountReturnsEveryCandidateRanked() {
+		List<SearchResultDto> candidates = new ArrayList<>(List.of(
+				row(1L, 100L, "Milk", 9.0, 1, "3.00"),
+				row(2L, 100L, "Milk", 1.0, 50, "1.00"),
+				row(3L, 100L, "Milk", 5.0, 10, "2.00")));
+
+		List<SearchResultDto> ranked = ranker.topK(candidates, "milk", 10.0, 50);
+
+		assertEquals(List.of(2L, 3L, 1L), ranked.stream().map(SearchResultDto::getId).toList());
+	}
+
+	@Test
+	void noCandidatesGiveAnEmptyPage() {
+		assertTrue(ranker.topK(new ArrayList<>(), "milk", 10.0, 5).isEmpty());
+	}
+
+	@Test
+	void bestRowsSurviveEvenWhenTheyArriveLast() {
+		// Worst first, so every early row is evicted once the heap is full
+		List<SearchResultDto> candidates = new ArrayList<>();
+		for (long storeId = 1; storeId <= 20; storeId++) {
+			candidates.add(row(storeId, 100L, "Milk", 10.0 - storeId * 0.5, 10, "2.00"));
+		}
+
+		List<SearchResultDto> ranked = ranker.topK(candidates, "milk", 10.0, 3);
+
+		assertEquals(List.of(20L, 19L, 18L), ranked.stream().map(SearchResultDto::getId).toList());
+	}
+
+	@Test
+	void rowWithoutAPriceRanksBelowAnOtherwiseEqualPricedRow() {
+		List<SearchResultDto> candidates = new ArrayList<>(List.of(
+				row(1L, 100L, "Milk", 2.0, 10, null),
+				row(2L, 100L, "Milk", 2.0, 10, "2.00")));
+
+		List<SearchResultDto> ranked = ranker.topK(candidates, "milk", 10.0, 2);
+
+		assertEquals(List.of(2L, 1L), ranked.stream().map(SearchResultDto::getId).toList());
+	}
+
+	@Test
+	void exactNameBeatsPrefixAndSubstring() {
+		List<SearchResultDto> candidates = new ArrayList<>(List.of(
+				row(1L, 101L, "Toned Milk", 2.0, 10, "2.00"),
+				row(1L, 102L, "Milk Bread", 2.0, 10, "2.00"),
+				row(1L, 100L, "Milk", 2.0, 10, "2.00")));
+
+		List<SearchResultDto> ranked = ranker.topK(candidates, " Milk ", 10.0, 3);
+
+		assertEquals(List.of(100L, 102L, 101L), ranked.stream().map(SearchResultDto::getProductId).toList());
+		assertEquals("prefix", ranked.get(1).getScore().getMatchType());
+		assertEquals("substring", ranked.get(2).getScore().getMatchType());
+	}
+
+	@Test
+	void equalScoresFallBackToDistanceOrder() {
+		List<SearchResultDto> candidates = new ArrayList<>(List.of(
+				row(2L, 100L, "Milk", 2.0, 10, "2.00"),
+				row(1L, 100L, "Milk", 2.0, 10, "2.00")));
+
+		List<SearchResultDto> ranked = ranker.topK(candidates, "milk", 10.0, 2);
+
+		assertEquals(List.of(1L, 2L), ranked.stream().map(SearchResultDto::getId).toList());
+	}
+
+	private static SearchResultDto row(Long storeId, Long productId, String name, double distanceKm, int quantity,
+									   String price) {
+		return new SearchResultDto(storeId, "Store " + storeId, null, 19.0, 72.8, productId, name, "Dairy", quantity,
+				price == null ? null : new BigDecimal(price), distanceKm);
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.event.InventoryChangedEvent;
+import com.example.shopit.event.StoreChangedEvent;
+import com.example.shopit.repository.NearbySearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchResultCacheTests {
+
+	private SearchResultCache cache;
+	private StoreLocationIndex storeLocationIndex;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() {
+		storeLocationIndex = mock(StoreLocationIndex.class);
+		when(storeLocationIndex.getLocation(1L)).thenReturn(new double[] {19.0, 72.8});
+		when(storeLocationIndex.getLocation(2L)).thenReturn(new double[] {28.6, 77.2});
+		cache = new SearchResultCache();
+		ReflectionTestUtils.setField(cache, "storeLocationIndex", storeLocationIndex);
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "cellDegrees", 0.01);
+		ReflectionTestUtils.setField(cache, "radiusBucketKm", 5.0);
+		ReflectionTestUtils.setField(cache, "maxRadiusKm", 500.0);
+		ReflectionTestUtils.setField(cache, "maxRows", 1000L);
+		ReflectionTestUtils.setField(cache, "regionDegrees", 0.5);
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+		cache.init();
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	void radiiOfferedBySearchPageAreCacheable() {
+		for (double radius : new double[] {10, 25, 50, 100, 200, 500}) {
+			assertTrue(cache.isCacheable(radius));
+		}
+		assertFalse(cache.isCacheable(501.0));
+	}
+
+	@Test
+	void changeNearbyReloadsAndChangeFarAwayDoesNot() {
+		search();
+		search();
+		assertEquals(1, loads.get());
+
+		cache.onInventoryChanged(new InventoryChangedEvent(2L, 100L, 0, null, false));
+		search();
+		assertEquals(1, loads.get());
+
+		cache.onInventoryChanged(new InventoryChangedEvent(1L, 100L, 0, null, false));
+		search();
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void changeDuringLoadIsNotHiddenByTheLoadedEntry() {
+		cache.search(criteria(), c -> {
+			loads.incrementAndGet();
+			// Committed after the loader read the database but before its rows were cached
+			cache.onInventoryChanged(new InventoryChangedEvent(1L, 100L, 0, null, false));
+			return List.of(row());
+		});
+		search();
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void storeWithUnknownLocationInvalidatesEverything() {
+		search();
+		cache.onStoreChanged(new StoreChangedEvent(3L));
+		search();
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void queryIsTrimmedAndCaseFolded() {
+		search();
+		NearbySearchCriteria padded = new NearbySearchCriteria("  MILK ", 19.0, 72.8, 10.0);
+		cache.search(padded, this::load);
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void regionsWrapAcrossTheAntimeridian() {
+		long[] regions = cache.regionsCovering(0.0, 179.9, 50.0);
+		assertTrue(Arrays.stream(regions).anyMatch(r -> r == cache.regionOf(0.1, -179.9)));
+		assertTrue(Arrays.stream(regions).anyMatch(r -> r == cache.regionOf(0.1, 179.9)));
+	}
+
+	private void search() {
+		cache.search(criteria(), this::load);
+	}
+
+	private List<SearchResultDto> load(NearbySearchCriteria criteria) {
+		loads.incrementAndGet();
+		return List.of(row());
+	}
+
+	private static NearbySearchCriteria criteria() {
+		return new NearbySearchCriteria("milk", 19.0, 72.8, 10.0);
+	}
+
+	private static SearchResultDto row() {
+		return new SearchResultDto(1L, "Store 1", null, 19.0, 72.8, 100L, "Milk", "Dairy", 5,
+				new BigDecimal("1.00"), 0.0);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.shopit.service;
+
+import com.example.shopit.event.StoreLocationChangedEvent;
+import com.example.shopit.repository.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoreLocationIndexTests {
+
+	private StoreLocationIndex index;
+	private StoreRepository storeRepository;
+
+	@BeforeEach
+	void setUp() {
+		storeRepository = mock(StoreRepository.class);
+		index = new StoreLocationIndex();
+		ReflectionTestUtils.setField(index, "storeRepository", storeRepository);
+		ReflectionTestUtils.setField(index, "cellDegrees", 0.05);
+	}
+
+	@Test
+	void findsStoresWithinRadiusOnly() {
+		when(storeRepository.findAllLocations()).thenReturn(rows(
+				new Object[] {1L, 19.0760, 72.8777},
+				new Object[] {2L, 19.1000, 72.9000},
+				new Object[] {3L, 28.6139, 77.2090}));
+		index.rebuild();
+
+		List<Long> nearby = index.findStoreIdsWithinRadius(19.0760, 72.8777, 5.0);
+		assertEquals(2, nearby.size());
+		assertTrue(nearby.containsAll(List.of(1L, 2L)));
+	}
+
+	@Test
+	void searchWrapsAcrossTheAntimeridian() {
+		when(storeRepository.findAllLocations()).thenReturn(rows(new Object[] {1L, 0.0, -179.99}));
+		index.rebuild();
+
+		assertEquals(List.of(1L), index.findStoreIdsWithinRadius(0.0, 179.99, 10.0));
+	}
+
+	@Test
+	void storeCommittedDuringRebuildIsKept() {
+		// The table was read before the registration committed; its after-commit put lands mid-rebuild
+		when(storeRepository.findAllLocations()).thenAnswer(invocation -> {
+			index.onStoreLocationChanged(new StoreLocationChangedEvent(2L, 19.08, 72.88));
+			return rows(new Object[] {1L, 19.0760, 72.8777});
+		});
+		index.rebuild();
+
+		assertNotNull(index.getLocation(1L));
+		assertNotNull(index.getLocation(2L));
+	}
+
+	@Test
+	void storeRemovedDuringRebuildStaysRemoved() {
+		when(storeRepository.findAllLocations()).thenReturn(rows(new Object[] {1L, 19.0760, 72.8777}));
+		index.rebuild();
+		when(storeRepository.findAllLocations()).thenAnswer(invocation -> {
+			index.remove(1L);
+			return rows(new Object[] {1L, 19.0760, 72.8777});
+		});
+		index.rebuild();
+
+		assertNull(index.getLocation(1L));
+	}
+
+	private static List<Object[]> rows(Object[]... rows) {
+		return new ArrayList<>(List.of(rows));
+	}
+}
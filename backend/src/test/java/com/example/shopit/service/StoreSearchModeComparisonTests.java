@@ -0,0 +1,57 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SearchResultDto;
+import com.example.shopit.repository.NearbySearchCriteria;
+import com.example.shopit.repository.StoreRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class StoreSearchModeComparisonTests {
+
+	private static final double[][] LOCATIONS = {
+			{19.0822, 72.8811},
+			{18.5314, 73.8447},
+			{17.4485, 78.3908}
+	};
+
+	private static final String[] QUERIES = {"a", "rice", "milk", "atta"};
+
+	private static final double[] RADII = {2, 10, 200, 2000};
+
+	@Autowired
+	private StoreService storeService;
+
+	@Autowired
+	private StoreRepository storeRepository;
+
+	@Test
+	void gridAndPostgisReturnSameRowsAsFullScan() {
+		for (double[] location : LOCATIONS) {
+			for (String query : QUERIES) {
+				for (double radius : RADII) {
+					List<String> expected = rows(storeRepository.findNearbyStoresWithProduct(query, location[0], location[1], radius));
+					String scenario = query + " @ " + location[0] + "," + location[1] + " within " + radius + "km";
+
+					assertEquals(expected, rows(storeService.searchWithGrid(new NearbySearchCriteria(query, location[0], location[1], radius))), "grid: " + scenario);
+					assertEquals(expected, rows(storeService.searchWithPostgis(new NearbySearchCriteria(query, location[0], location[1], radius))), "postgis: " + scenario);
+				}
+			}
+		}
+	}
+
+	private static List<String> rows(List<SearchResultDto> results) {
+		return results.stream()
+				.sorted(Comparator.comparing(SearchResultDto::getId).thenComparing(SearchResultDto::getProductName))
+				.map(r -> r.getId() + "|" + r.getProductName() + "|" + r.getQuantity() + "|"
+						+ String.format("%.6f", r.getDistanceKm()))
+				.toList();
+	}
+
+}
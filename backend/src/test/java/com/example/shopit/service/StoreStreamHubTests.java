@@ -0,0 +1,98 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.InventoryChangeDto;
+import com.example.shopit.event.InventoryFeedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoreStreamHubTests {
+
+	private StoreStreamHub hub;
+	private StoreService storeService;
+
+	@BeforeEach
+	void setUp() {
+		StoreDetailsCache storeDetailsCache = mock(StoreDetailsCache.class);
+		when(storeDetailsCache.get(1L)).thenReturn(new StoreDetailsCache.Entry(1L, LocalDate.now(), "\"1\"",
+				"{}".getBytes(StandardCharsets.UTF_8), null));
+		storeService = mock(StoreService.class);
+		when(storeService.getStoreDetailsETag(2L)).thenReturn(Optional.empty());
+
+		hub = new StoreStreamHub();
+		ReflectionTestUtils.setField(hub, "storeService", storeService);
+		ReflectionTestUtils.setField(hub, "storeDetailsCache", storeDetailsCache);
+		ReflectionTestUtils.setField(hub, "maxConnections", 2);
+		ReflectionTestUtils.setField(hub, "timeoutMs", 60000L);
+		ReflectionTestUtils.setField(hub, "maxQueuedEvents", 2);
+		ReflectionTestUtils.setField(hub, "sendThreads", 1);
+		hub.start();
+		// Writes are never run, so queued events stay queued like they would for a stalled client
+		ReflectionTestUtils.setField(hub, "sender", mock(ExecutorService.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		hub.stop();
+	}
+
+	@Test
+	void unknownStoreOpensNothing() {
+		assertTrue(hub.open(2L).isEmpty());
+		assertEquals(0, hub.getConnectionCount());
+	}
+
+	@Test
+	void connectionsOverTheLimitAreRefused() {
+		assertTrue(hub.open(1L).isPresent());
+		assertTrue(hub.open(1L).isPresent());
+		assertThrows(IllegalStateException.class, () -> hub.open(1L));
+		assertEquals(2, hub.getConnectionCount());
+	}
+
+	@Test
+	void queueOverflowClosesTheStreamAndFreesItsSlot() {
+		SseEmitter stalled = hub.open(1L).orElseThrow();
+		// The snapshot takes one queue slot; the second change overflows maxQueuedEvents
+		hub.onInventoryFeed(feed(1L, 1L));
+		assertEquals(1, hub.getConnectionCount());
+		hub.onInventoryFeed(feed(1L, 2L));
+
+		assertEquals(0, hub.getConnectionCount());
+		// The emitter is completed, so the client sees the stream end and reconnects for a fresh snapshot
+		assertThrows(IllegalStateException.class, () -> stalled.send("late"));
+		// Later changes don't resurrect it, and its slot is free for new clients up to the limit
+		hub.onInventoryFeed(feed(1L, 3L));
+		assertTrue(hub.open(1L).isPresent());
+		assertTrue(hub.open(1L).isPresent());
+		assertEquals(2, hub.getConnectionCount());
+	}
+
+	@Test
+	void changesForOtherStoresAreNotQueued() {
+		hub.open(1L);
+		hub.onInventoryFeed(feed(3L, 1L));
+		hub.onInventoryFeed(feed(3L, 2L));
+		assertEquals(1, hub.getConnectionCount());
+	}
+
+	private static InventoryFeedEvent feed(Long storeId, Long seq) {
+		return new InventoryFeedEvent(List.of(new InventoryChangeDto(seq, storeId, 100L, 5, null, false,
+				LocalDateTime.now())));
+	}
+}
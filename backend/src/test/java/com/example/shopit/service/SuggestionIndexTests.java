@@ -0,0 +1,104 @@
+package com.example.shopit.service;
+
+import com.example.shopit.dto.SuggestionDto;
+import com.example.shopit.repository.InventoryRepository;
+import com.example.shopit.repository.ProductRepository;
+import com.example.shopit.repository.SearchHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SuggestionIndexTests {
+
+	private SuggestionIndex index;
+	private StoreLocationIndex storeLocationIndex;
+
+	@BeforeEach
+	void setUp() {
+		ProductRepository productRepository = mock(ProductRepository.class);
+		InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+		SearchHistoryRepository searchHistoryRepository = mock(SearchHistoryRepository.class);
+		when(productRepository.findAllNamesAndCategories()).thenReturn(List.of(
+				new Object[] {1L, "Milk", "Dairy"},
+				new Object[] {2L, "Milk Bread", "Bakery"},
+				new Object[] {3L, "Millet Flour", "Grains"},
+				new Object[] {4L, "Mint Chutney", "Condiments"}));
+		// Milk in five stores, Milk Bread in one, Millet Flour in three
+		when(inventoryRepository.findInStockStoreProductPairs()).thenReturn(List.of(
+				new Object[] {10L, 1L}, new Object[] {11L, 1L}, new Object[] {12L, 1L},
+				new Object[] {13L, 1L}, new Object[] {14L, 1L},
+				new Object[] {12L, 2L},
+				new Object[] {10L, 3L}, new Object[] {13L, 3L}, new Object[] {14L, 3L}));
+		when(searchHistoryRepository.countSearchTermsSince(any())).thenReturn(List.<Object[]>of(
+				new Object[] {"milk bread", 10L},
+				new Object[] {"not a product", 100L}));
+
+		storeLocationIndex = mock(StoreLocationIndex.class);
+		when(storeLocationIndex.isLoaded()).thenReturn(true);
+
+		index = new SuggestionIndex();
+		ReflectionTestUtils.setField(index, "productRepository", productRepository);
+		ReflectionTestUtils.setField(index, "inventoryRepository", inventoryRepository);
+		ReflectionTestUtils.setField(index, "searchHistoryRepository", searchHistoryRepository);
+		ReflectionTestUtils.setField(index, "storeLocationIndex", storeLocationIndex);
+		ReflectionTestUtils.setField(index, "maxResults", 3);
+		ReflectionTestUtils.setField(index, "historyDays", 30);
+		index.rebuild();
+	}
+
+	@Test
+	void completionsAreRankedByStockingStoresPlusSearches() {
+		List<SuggestionDto> suggestions = index.suggest("mil", 10);
+		assertEquals(List.of("Milk Bread", "Milk", "Millet Flour"), suggestions.stream().map(SuggestionDto::getText).toList());
+		assertEquals(11L, suggestions.get(0).getWeight());
+	}
+
+	@Test
+	void prefixIsCaseInsensitiveAndLimited() {
+		assertEquals(List.of("Milk Bread"), index.suggest("  MI ", 1).stream().map(SuggestionDto::getText).toList());
+	}
+
+	@Test
+	void categoriesAreSuggestedWithTheirType() {
+		List<SuggestionDto> suggestions = index.suggest("dai", 10);
+		assertEquals(1, suggestions.size());
+		assertEquals("Dairy", suggestions.get(0).getText());
+		assertEquals("category", suggestions.get(0).getType());
+	}
+
+	@Test
+	void unknownOrBlankPrefixGivesNothing() {
+		assertTrue(index.suggest("xyz", 10).isEmpty());
+		assertTrue(index.suggest(" ", 10).isEmpty());
+	}
+
+	@Test
+	void withAPositionOnlyNearbyStockIsSuggested() {
+		when(storeLocationIndex.findStoreIdsWithinRadius(19.0, 72.8, 5.0)).thenReturn(List.of(10L, 11L));
+
+		List<SuggestionDto> suggestions = index.suggest("mil", 19.0, 72.8, 5.0, 10);
+		// Milk Bread ranks first globally but no nearby store has it
+		assertEquals(List.of("Milk", "Millet Flour"), suggestions.stream().map(SuggestionDto::getText).toList());
+		assertEquals(List.of(2L, 1L), suggestions.stream().map(SuggestionDto::getWeight).toList());
+	}
+
+	@Test
+	void noStoresNearbyGivesNothing() {
+		when(storeLocationIndex.findStoreIdsWithinRadius(0.0, 0.0, 5.0)).thenReturn(List.of());
+		assertTrue(index.suggest("mil", 0.0, 0.0, 5.0, 10).isEmpty());
+	}
+
+	@Test
+	void globalWeightsApplyUntilTheStoreGridIsLoaded() {
+		when(storeLocationIndex.isLoaded()).thenReturn(false);
+		assertEquals("Milk Bread", index.suggest("mil", 19.0, 72.8, 5.0, 10).get(0).getText());
+	}
+}
@@ -0,0 +1,25 @@
+package com.example.shopit.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LikePatternsTests {
+
+	@Test
+	void escapeMakesWildcardsLiteral() {
+		assertEquals("100\\% juice", LikePatterns.escape("100% juice"));
+		assertEquals("a\\_b", LikePatterns.escape("a_b"));
+		assertEquals("c:\\\\temp", LikePatterns.escape("c:\\temp"));
+		assertEquals("milk", LikePatterns.escape("milk"));
+	}
+
+	@Test
+	void escapedTermMatchesOnlyItself() {
+		assertTrue(LikePatterns.containsLike("Mango 100% Juice", LikePatterns.escape("100%")));
+		assertFalse(LikePatterns.containsLike("Mango 1000 Juice", LikePatterns.escape("100%")));
+		assertFalse(LikePatterns.containsLike("Mango Juice", LikePatterns.escape("_")));
+	}
+}
@@ -104,7 +104,7 @@ CREATE TABLE IF NOT EXISTS search_history (
 );
 
 -- 🔸 Indexes for better performance
-CREATE INDEX IF NOT EXISTS idx_stores_location ON stores USING GIST (ST_SetSRID(ST_MakePoint(longitude, latitude), 4326));
+CREATE INDEX IF NOT EXISTS idx_stores_location_geography ON stores USING GIST ((ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)::geography));
 CREATE INDEX IF NOT EXISTS idx_inventory_store_id ON inventory(store_id);
 CREATE INDEX IF NOT EXISTS idx_inventory_product_id ON inventory(product_id);
 CREATE INDEX IF NOT EXISTS idx_products_name ON products(name);
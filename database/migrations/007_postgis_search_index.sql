@@ -0,0 +1,18 @@
+-- Migration: Make sure the PostGIS location index used by SEARCH_MODE=postgis exists
+-- Databases created by Hibernate (ddl-auto=update) never ran schema.sql, so they lack it
+-- Geography, so ST_DWithin takes metres and wraps at the antimeridian
+
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+CREATE INDEX IF NOT EXISTS idx_stores_location_geography
+    ON stores USING GIST ((ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)::geography));
+
+ANALYZE stores;
+
+-- Verify the index is picked up (expect an Index Scan / Bitmap Index Scan on idx_stores_location_geography)
+EXPLAIN
+SELECT id
+FROM stores
+WHERE ST_DWithin(ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)::geography,
+                 ST_SetSRID(ST_MakePoint(72.8811, 19.0822), 4326)::geography,
+                 10000, false);
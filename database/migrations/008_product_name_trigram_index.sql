@@ -0,0 +1,15 @@
+-- Migration: Trigram index for substring product search (SEARCH_PRODUCT_INDEX=pg_trgm)
+-- lower(name) LIKE '%term%' can't use the B-tree idx_products_name; a pg_trgm GIN index can
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+    ON products USING GIN (lower(name) gin_trgm_ops);
+
+ANALYZE products;
+
+-- Verify the index is picked up (expect a Bitmap Index Scan on idx_products_name_trgm)
+EXPLAIN
+SELECT id
+FROM products
+WHERE lower(name) LIKE lower(concat('%', 'atta', '%'));
@@ -0,0 +1,6 @@
+-- Migration: Index for resolving products by barcode (stock file imports)
+-- Imports look up a batch of barcodes at once with barcode IN (...)
+
+CREATE INDEX IF NOT EXISTS idx_products_barcode ON products(barcode);
+
+ANALYZE products;
@@ -0,0 +1,23 @@
+-- Migration: Outbox table behind the inventory change feed (GET /api/inventory/changes)
+-- Rows are inserted in the same transaction as the inventory change; the dispatcher numbers committed
+-- rows (seq) in order, and readers page through the feed by seq
+
+CREATE TABLE IF NOT EXISTS inventory_changes (
+    id BIGSERIAL PRIMARY KEY,
+    seq BIGINT UNIQUE,
+    store_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER,
+    price DECIMAL(10, 2),
+    deleted BOOLEAN NOT NULL DEFAULT false,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Per-store feed pages
+CREATE INDEX IF NOT EXISTS idx_inventory_changes_store_seq ON inventory_changes(store_id, seq);
+
+-- Rows still waiting for a seq
+CREATE INDEX IF NOT EXISTS idx_inventory_changes_unsequenced ON inventory_changes(id) WHERE seq IS NULL;
+
+-- Retention cleanup
+CREATE INDEX IF NOT EXISTS idx_inventory_changes_created_at ON inventory_changes(created_at);
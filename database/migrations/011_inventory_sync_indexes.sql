@@ -0,0 +1,9 @@
+-- Migration: Indexes for inventory delta sync (GET /api/store-management/store/{id}/inventory?since=)
+-- Changed rows are found by last_updated within the store; deletions from the change feed's tombstones
+
+CREATE INDEX IF NOT EXISTS idx_inventory_store_last_updated ON inventory(store_id, last_updated);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_changes_store_deleted ON inventory_changes(store_id, created_at)
+    WHERE deleted = true;
+
+ANALYZE inventory;
@@ -4,6 +4,7 @@
 
 -- 🔸 Enable PostGIS extension for geo queries
 CREATE EXTENSION IF NOT EXISTS postgis;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
 -- 🔸 Stores table
 CREATE TABLE IF NOT EXISTS stores (
@@ -100,13 +101,32 @@ CREATE TABLE IF NOT EXISTS search_history (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- 🔸 Inventory Changes Table (outbox and change feed; seq is assigned once the change is committed)
+CREATE TABLE IF NOT EXISTS inventory_changes (
+    id BIGSERIAL PRIMARY KEY,
+    seq BIGINT UNIQUE,
+    store_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER,
+    price DECIMAL(10, 2),
+    deleted BOOLEAN NOT NULL DEFAULT false,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- 🔸 Indexes for better performance
-CREATE INDEX IF NOT EXISTS idx_stores_location ON stores USING GIST (ST_SetSRID(ST_MakePoint(longitude, latitude), 4326));
+CREATE INDEX IF NOT EXISTS idx_stores_location_geography ON stores USING GIST ((ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)::geography));
 CREATE INDEX IF NOT EXISTS idx_inventory_store_id ON inventory(store_id);
 CREATE INDEX IF NOT EXISTS idx_inventory_product_id ON inventory(product_id);
+CREATE INDEX IF NOT EXISTS idx_inventory_store_last_updated ON inventory(store_id, last_updated);
 CREATE INDEX IF NOT EXISTS idx_products_name ON products(name);
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_barcode ON products(barcode);
 CREATE INDEX IF NOT EXISTS idx_search_history_user_id ON search_history(user_id);
 CREATE INDEX IF NOT EXISTS idx_search_history_created_at ON search_history(created_at);
+CREATE INDEX IF NOT EXISTS idx_inventory_changes_store_seq ON inventory_changes(store_id, seq);
+CREATE INDEX IF NOT EXISTS idx_inventory_changes_unsequenced ON inventory_changes(id) WHERE seq IS NULL;
+CREATE INDEX IF NOT EXISTS idx_inventory_changes_created_at ON inventory_changes(created_at);
+CREATE INDEX IF NOT EXISTS idx_inventory_changes_store_deleted ON inventory_changes(store_id, created_at) WHERE deleted = true;
 CREATE INDEX IF NOT EXISTS idx_users_firebase_uid ON users(firebase_uid);
 CREATE INDEX IF NOT EXISTS idx_users_user_type ON users(user_type);
 CREATE INDEX IF NOT EXISTS idx_store_owner_auth_email ON store_owner_auth(email);
@@ -12,7 +12,9 @@ import { searchProductNearby } from '../services/api';
 function Search() {
   const [searchTerm, setSearchTerm] = useState('');
   const [results, setResults] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState(null);
   const [radius, setRadius] = useState(100); // Default 100km radius
   const { userLocation } = useContext(LocationContext);
@@ -32,8 +34,10 @@ function Search() {
       }
 
       const { latitude, longitude } = userLocation;
-      const storesWithProduct = await searchProductNearby(product, latitude, longitude, radius);
+      const { stores: storesWithProduct, nextCursor: cursor } =
+        await searchProductNearby(product, latitude, longitude, radius);
       setResults(storesWithProduct);
+      setNextCursor(cursor);
 
       // Add search to history
       addSearchToHistory(product, userLocation, storesWithProduct);
@@ -45,6 +49,26 @@ function Search() {
     }
   };
 
+  // Appends the next page of the current search
+  const handleLoadMore = async () => {
+    if (!nextCursor || !userLocation) return;
+
+    try {
+      setLoadingMore(true);
+      setError(null);
+      const { latitude, longitude } = userLocation;
+      const { stores, nextCursor: cursor } =
+        await searchProductNearby(searchTerm, latitude, longitude, radius, nextCursor);
+      setResults((previous) => [...previous, ...stores]);
+      setNextCursor(cursor);
+    } catch (err) {
+      console.error("Loading more results failed:", err);
+      setError(err.message || "Failed to load more results");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   // Handle URL search parameter on component mount
   useEffect(() => {
     const queryParam = searchParams.get('q');
@@ -107,6 +131,15 @@ function Search() {
             <div className="grid grid-cols-1 lg:grid-cols-3 gap-6">
               <div className="lg:col-span-1">
                 <StoreList stores={results} searchTerm={searchTerm} />
+                {nextCursor && (
+                  <button
+                    onClick={handleLoadMore}
+                    disabled={loadingMore}
+                    className="mt-4 w-full px-4 py-2 text-sm font-medium text-blue-600 border border-blue-600 rounded-md hover:bg-blue-50 disabled:opacity-50"
+                  >
+                    {loadingMore ? 'Loading...' : 'Load more stores'}
+                  </button>
+                )}
               </div>
               <div className="lg:col-span-2">
                 <Map stores={results} userLocation={userLocation} />
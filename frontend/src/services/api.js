@@ -20,7 +20,8 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
-export const searchProductNearby = async (query, latitude, longitude, radius = 100) => {
+// One page of results; pass the returned nextCursor back in to fetch the following page (null when done)
+export const searchProductNearby = async (query, latitude, longitude, radius = 100, cursor = null) => {
   try {
     const response = await api.get('/search', {
       params: {
@@ -28,6 +29,7 @@ export const searchProductNearby = async (query, latitude, longitude, radius = 1
         lat: latitude,
         lng: longitude,
         radius,
+        ...(cursor ? { cursor } : {}),
       },
     });
 
@@ -43,7 +45,10 @@ export const searchProductNearby = async (query, latitude, longitude, radius = 1
       distance_km: item.distanceKm
     }));
 
-    return transformedData;
+    return {
+      stores: transformedData,
+      nextCursor: response.headers['x-next-cursor'] || null,
+    };
   } catch (error) {
     console.error('Error searching for products:', error);
     throw error.response?.data || error;